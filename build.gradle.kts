@@ -3,6 +3,8 @@ plugins {
     id("com.gradleup.shadow") version "8.3.5"
     // QuPath Gradle extension convention plugin
     id("qupath-conventions")
+    // JMH benchmarks for the tile, import and hierarchy hot paths
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 // Configure your extension here
@@ -24,4 +26,46 @@ dependencies {
     // For testing
     testImplementation(libs.bundles.qupath)
     testImplementation(libs.junit)
+
+    // For benchmarking
+    jmhImplementation(libs.bundles.qupath)
+    jmhImplementation(libs.bundles.logging)
+    jmhImplementation(libs.qupath.fxtras)
+}
+
+// Unit tests are written for JUnit 5
+tasks.test {
+    useJUnitPlatform()
+}
+
+// The prototype SIMD pixel kernels live with the benchmarks and are compiled against the incubating
+// Vector API; only that source set needs the module, so the main build prints no incubator warning
+tasks.named<JavaCompile>("compileJmhJava") {
+    options.compilerArgs.add("--add-modules=jdk.incubator.vector")
+}
+
+// Benchmark results are written as JSON so they can be compared between releases
+jmh {
+    jmhVersion = "1.37"
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+    // Allocation per operation (gc.alloc.rate.norm) is reported next to the timings
+    profilers = listOf("gc")
+}
+
+// End-to-end throughput benchmark on a synthetic pyramidal image with a stub inference worker
+tasks.register<JavaExec>("e2eBenchmark") {
+    group = "benchmark"
+    description = "Runs the end-to-end inference benchmark without a Python environment."
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass = "qupath.ext.tseg.benchmark.EndToEndBenchmark"
+    args(layout.buildDirectory.file("reports/e2e/results.json").get().asFile.path)
+    systemProperty("java.awt.headless", "true")
+    for ((key, default) in listOf(
+        "tseg.e2e.roiSizes" to "4096,8192,16384",
+        "tseg.stub.startupMs" to "500",
+        "tseg.stub.latencyMs" to "5"
+    )) {
+        systemProperty(key, providers.systemProperty(key).getOrElse(default))
+    }
 }
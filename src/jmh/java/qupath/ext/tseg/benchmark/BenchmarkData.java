@@ -0,0 +1,141 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.benchmark;
+
+import qupath.ext.tseg.config.ExportConfig;
+import qupath.lib.images.ImageData;
+import qupath.lib.images.servers.ImageServerMetadata;
+import qupath.lib.images.servers.WrappedBufferedImageServer;
+import qupath.lib.objects.PathObject;
+import qupath.lib.objects.PathObjects;
+import qupath.lib.regions.ImagePlane;
+import qupath.lib.roi.ROIs;
+import qupath.lib.roi.interfaces.ROI;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Deterministic synthetic inputs shared by the benchmarks.
+ */
+public final class BenchmarkData {
+
+    public static final double SOURCE_MPP = 0.5;
+    public static final double TARGET_MPP = 2.0;
+    public static final int TILE_SIZE = 256;
+    public static final double TILE_OVERLAP = 0.5;
+
+    private static final int POLYGON_VERTICES = 16;
+    private static final double POLYGON_RADIUS = 20;
+    private static final double POLYGON_SPACING = 50;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Creates an in-memory RGB image with a stain-like pattern and a defined pixel size.
+     */
+    public static ImageData<BufferedImage> syntheticImageData(int width, int height) {
+        var img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        var g2d = img.createGraphics();
+        g2d.setColor(new Color(240, 230, 240));
+        g2d.fillRect(0, 0, width, height);
+        g2d.setColor(new Color(120, 60, 140));
+        for (int y = 0; y < height; y += 64) {
+            for (int x = (y / 64) % 2 * 32; x < width; x += 64) {
+                g2d.fillOval(x, y, 40, 40);
+            }
+        }
+        g2d.dispose();
+
+        var server = new WrappedBufferedImageServer("synthetic", img);
+        server.setMetadata(new ImageServerMetadata.Builder(server.getMetadata())
+                .pixelSizeMicrons(SOURCE_MPP, SOURCE_MPP)
+                .build());
+        return new ImageData<>(server);
+    }
+
+    /**
+     * Creates the export specification used by the extension defaults.
+     */
+    public static ExportConfig exportConfig(ROI roi) {
+        return new ExportConfig(roi, TARGET_MPP, SOURCE_MPP, TILE_SIZE, TILE_OVERLAP, ".png");
+    }
+
+    /**
+     * Creates a square ROI starting at the image origin.
+     */
+    public static ROI squareROI(int size) {
+        return ROIs.createRectangleROI(0, 0, size, size, ImagePlane.getDefaultPlane());
+    }
+
+    /**
+     * Creates annotation objects with small regular polygons laid out on a grid.
+     */
+    public static List<PathObject> polygons(int count) {
+        int columns = (int) Math.ceil(Math.sqrt(count));
+        List<PathObject> objects = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double[][] ring = ring(i % columns, i / columns);
+            var roi = ROIs.createPolygonROI(ring[0], ring[1], ImagePlane.getDefaultPlane());
+            objects.add(PathObjects.createAnnotationObject(roi));
+        }
+        return objects;
+    }
+
+    /**
+     * Writes polygons laid out like {@link #polygons(int)} as a GeoJSON feature collection.
+     */
+    public static void writeGeoJson(Path file, int count) throws IOException {
+        int columns = (int) Math.ceil(Math.sqrt(count));
+        var sb = new StringBuilder("{\"type\":\"FeatureCollection\",\"features\":[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(',');
+            double[][] ring = ring(i % columns, i / columns);
+            sb.append("{\"type\":\"Feature\",\"geometry\":{\"type\":\"Polygon\",\"coordinates\":[[");
+            for (int v = 0; v <= POLYGON_VERTICES; v++) {
+                int k = v % POLYGON_VERTICES;
+                if (v > 0) sb.append(',');
+                sb.append(String.format(Locale.US, "[%.2f,%.2f]", ring[0][k], ring[1][k]));
+            }
+            sb.append("]]},\"properties\":{\"objectType\":\"annotation\"}}");
+        }
+        sb.append("]}");
+        Files.writeString(file, sb);
+    }
+
+    private static double[][] ring(int column, int row) {
+        double cx = (column + 0.5) * POLYGON_SPACING;
+        double cy = (row + 0.5) * POLYGON_SPACING;
+        double[] x = new double[POLYGON_VERTICES];
+        double[] y = new double[POLYGON_VERTICES];
+        for (int v = 0; v < POLYGON_VERTICES; v++) {
+            double angle = 2 * Math.PI * v / POLYGON_VERTICES;
+            x[v] = cx + POLYGON_RADIUS * Math.cos(angle);
+            y[v] = cy + POLYGON_RADIUS * Math.sin(angle);
+        }
+        return new double[][]{x, y};
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.benchmark;
+
+import qupath.lib.images.servers.TileRequest;
+
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Synthetic pyramid server with a bounded LRU cache of native tiles that counts hits and misses,
+ * standing in for the tile cache of a real image server.
+ */
+public class CachingPyramidServer extends SyntheticPyramidServer {
+
+    private final Map<TileRequest, BufferedImage> cache;
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates a server of the given full resolution size and pixel size in microns,
+     * caching up to the given number of native tiles.
+     */
+    public CachingPyramidServer(int width, int height, double pixelSize, int cacheTiles) {
+        super(width, height, pixelSize);
+        cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TileRequest, BufferedImage> eldest) {
+                return size() > cacheTiles;
+            }
+        };
+    }
+
+    @Override
+    protected synchronized BufferedImage readTile(TileRequest tileRequest) {
+        var img = cache.get(tileRequest);
+        if (img != null) {
+            hits++;
+            return img;
+        }
+        misses++;
+        img = super.readTile(tileRequest);
+        cache.put(tileRequest, img);
+        return img;
+    }
+
+    /**
+     * Clears the cache and the counters.
+     */
+    public synchronized void reset() {
+        cache.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+}
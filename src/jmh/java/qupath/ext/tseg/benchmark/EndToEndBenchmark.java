@@ -0,0 +1,163 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.benchmark;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import qupath.ext.tseg.inference.InferenceDirectory;
+import qupath.ext.tseg.inference.InferenceEnvironment;
+import qupath.ext.tseg.inference.InferenceManager;
+import qupath.ext.tseg.inference.InferenceResult;
+import qupath.ext.tseg.inference.RunReport;
+import qupath.ext.tseg.inference.SegmentationCache;
+import qupath.ext.tseg.inference.WorkerLauncher;
+import qupath.ext.tseg.util.Utils;
+import qupath.lib.images.ImageData;
+import qupath.lib.objects.PathObjects;
+import qupath.lib.regions.ImagePlane;
+import qupath.lib.roi.ROIs;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * End-to-end throughput benchmark of the full {@link InferenceManager} flow.
+ * <p>
+ * Runs are made with {@link InferenceManager#runUnrecorded}, with a cache of their own, so the benchmark does not
+ * export metrics or change the throughput estimate and cached predictions of the QuPath installation it runs in.
+ * <p>
+ * Runs against a {@link SyntheticPyramidServer} with the {@link StubInferenceWorker} in place of the Python
+ * environment, so it needs no network or model files. For each ROI size it reports tiles/sec,
+ * per-stage wall time and peak heap usage, and writes the results as JSON to the path given as first argument.
+ */
+public final class EndToEndBenchmark {
+
+    private static final double SOURCE_MPP = 0.25;
+    private static final double TARGET_MPP = 2.0;
+    private static final double CONFIDENCE = 0.5;
+    private static final String DEFAULT_ROI_SIZES = "4096,8192,16384";
+
+    private EndToEndBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path resultsFile = Path.of(args.length > 0 ? args[0] : "e2e-results.json");
+        int[] roiSizes = Arrays.stream(System.getProperty("tseg.e2e.roiSizes", DEFAULT_ROI_SIZES).split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+
+        Path main = Files.createTempDirectory("tseg-e2e");
+        var directory = InferenceDirectory.create(main, "stub-repo");
+        Files.createDirectories(directory.repo());
+        Path model = Files.writeString(directory.models().resolve("stub.onnx"), "stub");
+        var environment = new InferenceEnvironment(directory, stubLauncher());
+
+        int imageSize = Arrays.stream(roiSizes).max().orElse(0) + 1024;
+        var server = new SyntheticPyramidServer(imageSize, imageSize, SOURCE_MPP);
+
+        var results = new JsonArray();
+        for (int roiSize : roiSizes) {
+            Utils.clearDir(directory.roi());
+            Utils.clearDir(directory.output());
+
+            var imageData = new ImageData<BufferedImage>(server);
+            var selectedArea = PathObjects.createAnnotationObject(
+                    ROIs.createRectangleROI(512, 512, roiSize, roiSize, ImagePlane.getDefaultPlane()));
+            imageData.getHierarchy().addObject(selectedArea);
+
+            resetPeakHeap();
+            InferenceResult result = InferenceManager.runUnrecorded(imageData, List.of(selectedArea), model,
+                    TARGET_MPP, CONFIDENCE, environment, new SegmentationCache(1));
+            long peakHeap = peakHeap();
+
+            var report = result.report();
+            results.add(toJson(roiSize, report, peakHeap));
+            System.out.printf("ROI %6d px: %5d tiles, %8.1f tiles/s, %s, peak heap %d MB%n",
+                    roiSize, report.tileCount(), tilesPerSecond(report), report.summary(), peakHeap >> 20);
+        }
+
+        var report = new JsonObject();
+        report.addProperty("sourceMPP", SOURCE_MPP);
+        report.addProperty("targetMPP", TARGET_MPP);
+        report.addProperty("stubLatencyMs", Long.getLong(StubInferenceWorker.LATENCY_PROPERTY, 0));
+        report.addProperty("stubStartupMs", Long.getLong(StubInferenceWorker.STARTUP_PROPERTY, 0));
+        report.add("runs", results);
+
+        if (resultsFile.getParent() != null)
+            Files.createDirectories(resultsFile.getParent());
+        Files.writeString(resultsFile, new GsonBuilder().setPrettyPrinting().create().toJson(report));
+        System.out.println("Results written to " + resultsFile.toAbsolutePath());
+    }
+
+    /**
+     * Creates a launcher that runs the stub worker in a new JVM with this classpath.
+     */
+    private static WorkerLauncher stubLauncher() {
+        return arguments -> {
+            List<String> command = new ArrayList<>(List.of(
+                    Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                    "-D" + StubInferenceWorker.STARTUP_PROPERTY + "="
+                            + Long.getLong(StubInferenceWorker.STARTUP_PROPERTY, 0),
+                    "-D" + StubInferenceWorker.LATENCY_PROPERTY + "="
+                            + Long.getLong(StubInferenceWorker.LATENCY_PROPERTY, 0),
+                    "-cp", System.getProperty("java.class.path"),
+                    StubInferenceWorker.class.getName()
+            ));
+            command.addAll(arguments);
+            return command;
+        };
+    }
+
+    private static JsonObject toJson(int roiSize, RunReport report, long peakHeap) {
+        var json = report.toJson();
+        json.addProperty("roiSize", roiSize);
+        json.addProperty("tilesPerSec", tilesPerSecond(report));
+        json.addProperty("peakHeapBytes", peakHeap);
+        return json;
+    }
+
+    private static double tilesPerSecond(RunReport report) {
+        return report.tileCount() / (report.totalTime().toNanos() / 1e9);
+    }
+
+    private static void resetPeakHeap() {
+        System.gc();
+        heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    private static long peakHeap() {
+        return heapPools().stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+    }
+}
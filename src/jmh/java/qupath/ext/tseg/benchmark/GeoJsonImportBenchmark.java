@@ -0,0 +1,91 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import qupath.ext.tseg.inference.io.TileIO;
+import qupath.lib.objects.PathObject;
+import qupath.lib.objects.PathObjects;
+import qupath.lib.objects.hierarchy.PathObjectHierarchy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GeoJSON parsing and import through {@link TileIO#importGeoJson}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeoJsonImportBenchmark {
+
+    @Param({"1000", "10000"})
+    public int polygonCount;
+
+    private Path geoJson;
+    private PathObjectHierarchy hierarchy;
+    private PathObject selectedArea;
+
+    @Setup
+    public void setup() throws IOException {
+        geoJson = Files.createTempFile("tseg-bench", ".geojson");
+        BenchmarkData.writeGeoJson(geoJson, polygonCount);
+    }
+
+    @Setup(Level.Invocation)
+    public void createHierarchy() {
+        hierarchy = new PathObjectHierarchy();
+        selectedArea = PathObjects.createAnnotationObject(BenchmarkData.squareROI(100_000));
+        hierarchy.addObject(selectedArea);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(geoJson);
+    }
+
+    @Benchmark
+    public List<PathObject> parseGeoJson() throws IOException {
+        return TileIO.readGeoJson(geoJson);
+    }
+
+    @Benchmark
+    public PathObjectHierarchy importGeoJson() throws IOException {
+        TileIO.importGeoJson(hierarchy, selectedArea, geoJson);
+        return hierarchy;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import qupath.ext.tseg.inference.io.TileIO;
+import qupath.lib.objects.PathObject;
+import qupath.lib.objects.PathObjects;
+import qupath.lib.objects.hierarchy.PathObjectHierarchy;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insertion of result polygons into the object hierarchy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class HierarchyInsertBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int polygonCount;
+
+    private PathObjectHierarchy hierarchy;
+    private PathObject selectedArea;
+    private List<PathObject> polygons;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        hierarchy = new PathObjectHierarchy();
+        selectedArea = PathObjects.createAnnotationObject(BenchmarkData.squareROI(100_000));
+        hierarchy.addObject(selectedArea);
+        polygons = BenchmarkData.polygons(polygonCount);
+    }
+
+    @Benchmark
+    public PathObjectHierarchy insert() {
+        TileIO.addToHierarchy(hierarchy, selectedArea, polygons);
+        return hierarchy;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.benchmark;
+
+import qupath.lib.images.servers.AbstractTileableImageServer;
+import qupath.lib.images.servers.ImageServer;
+import qupath.lib.images.servers.ImageServerBuilder.ServerBuilder;
+import qupath.lib.images.servers.ImageServerMetadata;
+import qupath.lib.images.servers.TileRequest;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.Collection;
+
+/**
+ * Image server that wraps another server and waits a fixed time before every native tile read,
+ * simulating the round trip of a remote image server.
+ */
+public class LatencyImageServer extends AbstractTileableImageServer {
+
+    private final ImageServer<BufferedImage> server;
+    private final long latencyMillis;
+
+    /**
+     * Wraps the server, adding the given latency in milliseconds to each tile read.
+     */
+    public LatencyImageServer(ImageServer<BufferedImage> server, long latencyMillis) {
+        this.server = server;
+        this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    protected BufferedImage readTile(TileRequest tileRequest) throws IOException {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for " + tileRequest);
+            }
+        }
+        return server.readRegion(tileRequest.getRegionRequest());
+    }
+
+    @Override
+    protected ServerBuilder<BufferedImage> createServerBuilder() {
+        return null;
+    }
+
+    @Override
+    protected String createID() {
+        return "latency-" + latencyMillis + "ms:" + server.getPath();
+    }
+
+    @Override
+    public Collection<URI> getURIs() {
+        return server.getURIs();
+    }
+
+    @Override
+    public String getServerType() {
+        return server.getServerType() + " (latency " + latencyMillis + " ms)";
+    }
+
+    @Override
+    public ImageServerMetadata getOriginalMetadata() {
+        return server.getOriginalMetadata();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import qupath.ext.tseg.inference.tensor.PixelOps;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Normalizing a tile into a planar tensor and thresholding a tile of logits, with the scalar and SIMD kernels.
+ * The forked JVM adds the Vector API module, so both implementations are available.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class PixelOpsBenchmark {
+
+    @Param({"scalar", "vector"})
+    public String kernels;
+
+    private PixelOps ops;
+    private int pixels;
+    private int[] rgb;
+    private float[] planar;
+    private float[] logits;
+    private byte[] mask;
+
+    @Setup
+    public void setup() {
+        ops = kernels.equals("vector") ? PixelOps.get() : PixelOps.scalar();
+        if (kernels.equals("vector") && !PixelOps.isVectorized())
+            throw new IllegalStateException("Vector API is not available");
+
+        pixels = BenchmarkData.TILE_SIZE * BenchmarkData.TILE_SIZE;
+        var random = new Random(42);
+        rgb = new int[pixels];
+        logits = new float[pixels];
+        for (int i = 0; i < pixels; i++) {
+            rgb[i] = random.nextInt(0x1000000);
+            logits[i] = (float) random.nextGaussian() * 4;
+        }
+        planar = new float[3 * pixels];
+        mask = new byte[pixels];
+    }
+
+    @Benchmark
+    public float[] normalize() {
+        ops.normalize(rgb, pixels, PixelOps.IMAGENET_MEAN, PixelOps.IMAGENET_STD, planar);
+        return planar;
+    }
+
+    @Benchmark
+    public byte[] threshold() {
+        ops.threshold(logits, pixels, 0.5, mask);
+        return mask;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.benchmark;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.operation.union.UnaryUnionOp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import qupath.ext.tseg.inference.geometry.PolygonMerger;
+import qupath.lib.roi.GeometryTools;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merging of per-tile polygons with {@link PolygonMerger} compared to a single global union.
+ * <p>
+ * Every tile of a 50% overlapping grid contributes one octagon; tiles are grouped into square
+ * clusters, so the input contains many independent tumor-like regions made of overlapping fragments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PolygonMergeBenchmark {
+
+    private static final int TILE = 512;
+    private static final int STEP = TILE / 2;
+    private static final int CLUSTER = 8;
+
+    @Param({"1024", "16384"})
+    public int tileCount;
+
+    private List<Geometry> fragments;
+
+    @Setup
+    public void setup() {
+        int columns = (int) Math.ceil(Math.sqrt(tileCount));
+        fragments = new ArrayList<>(tileCount);
+        for (int i = 0; i < tileCount; i++) {
+            int column = i % columns;
+            int row = i / columns;
+            // Leave a gap of one tile between clusters
+            if (column % (CLUSTER + 1) == CLUSTER || row % (CLUSTER + 1) == CLUSTER) continue;
+            fragments.add(octagon(column * STEP, row * STEP));
+        }
+    }
+
+    @Benchmark
+    public List<Polygon> mergeIndexed() {
+        return PolygonMerger.merge(fragments, 0);
+    }
+
+    @Benchmark
+    public Geometry unionGlobal() {
+        return UnaryUnionOp.union(fragments, GeometryTools.getDefaultFactory());
+    }
+
+    private static Geometry octagon(double x, double y) {
+        double c = TILE / 4.0;
+        var factory = GeometryTools.getDefaultFactory();
+        return factory.createPolygon(new Coordinate[]{
+                new Coordinate(x + c, y),
+                new Coordinate(x + TILE - c, y),
+                new Coordinate(x + TILE, y + c),
+                new Coordinate(x + TILE, y + TILE - c),
+                new Coordinate(x + TILE - c, y + TILE),
+                new Coordinate(x + c, y + TILE),
+                new Coordinate(x, y + TILE - c),
+                new Coordinate(x, y + c),
+                new Coordinate(x + c, y)
+        });
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Deterministic stand-in for the Python inference script.
+ * <p>
+ * Accepts the same arguments as {@code infer.py}, sleeps for a configurable model load and per-tile latency,
+ * and returns a fixed mask for each tile: a square covering its central half.
+ * Latencies are set with the {@code tseg.stub.startupMs} and {@code tseg.stub.latencyMs} system properties.
+ */
+public final class StubInferenceWorker {
+
+    public static final String STARTUP_PROPERTY = "tseg.stub.startupMs";
+    public static final String LATENCY_PROPERTY = "tseg.stub.latencyMs";
+
+    private static final Pattern TILE_REGION = Pattern.compile("x=(\\d+),y=(\\d+),w=(\\d+),h=(\\d+)");
+    private static final String POLYGONS_FILE = "polygons.geojson";
+
+    private StubInferenceWorker() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Map<String, String> options = parseOptions(args);
+        Path tileDir = Path.of(options.get("--tile-dir"));
+        Path outputDir = Path.of(options.get("--output-dir"));
+
+        Thread.sleep(Long.getLong(STARTUP_PROPERTY, 0));
+        long modelLoaded = System.nanoTime();
+        long latency = Long.getLong(LATENCY_PROPERTY, 0);
+
+        List<Path> tiles;
+        try (var files = Files.list(tileDir)) {
+            tiles = files.sorted().toList();
+        }
+
+        var sb = new StringBuilder("{\"type\":\"FeatureCollection\",\"features\":[");
+        int nPolygons = 0;
+        for (Path tile : tiles) {
+            var matcher = TILE_REGION.matcher(tile.getFileName().toString());
+            if (!matcher.find())
+                continue;
+            Thread.sleep(latency);
+
+            int x = Integer.parseInt(matcher.group(1));
+            int y = Integer.parseInt(matcher.group(2));
+            int w = Integer.parseInt(matcher.group(3));
+            int h = Integer.parseInt(matcher.group(4));
+            double x0 = x + w * 0.25, x1 = x + w * 0.75;
+            double y0 = y + h * 0.25, y1 = y + h * 0.75;
+
+            if (nPolygons++ > 0) sb.append(',');
+            sb.append(String.format(Locale.US,
+                    "{\"type\":\"Feature\",\"geometry\":{\"type\":\"Polygon\",\"coordinates\":"
+                            + "[[[%.1f,%.1f],[%.1f,%.1f],[%.1f,%.1f],[%.1f,%.1f],[%.1f,%.1f]]]},"
+                            + "\"properties\":{\"objectType\":\"annotation\"}}",
+                    x0, y0, x1, y0, x1, y1, x0, y1, x0, y0));
+        }
+        sb.append("]}");
+        Files.writeString(outputDir.resolve(POLYGONS_FILE), sb);
+
+        long end = System.nanoTime();
+        System.out.printf(Locale.US,
+                "{\"runtime_sec\": %.3f, \"model_load_sec\": %.3f, \"inference_sec\": %.3f, \"n_polygons\": %d}%n",
+                (end - start) / 1e9, (modelLoaded - start) / 1e9, (end - modelLoaded) / 1e9, nPolygons);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i], args[i + 1]);
+        }
+        return options;
+    }
+}
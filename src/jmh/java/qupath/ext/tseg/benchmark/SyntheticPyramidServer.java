@@ -0,0 +1,116 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.benchmark;
+
+import qupath.lib.images.servers.AbstractTileableImageServer;
+import qupath.lib.images.servers.ImageChannel;
+import qupath.lib.images.servers.ImageServerBuilder.ServerBuilder;
+import qupath.lib.images.servers.ImageServerMetadata;
+import qupath.lib.images.servers.PixelType;
+import qupath.lib.images.servers.TileRequest;
+
+import java.awt.Color;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Pyramidal RGB image server that paints a deterministic tissue-like pattern on demand.
+ */
+public class SyntheticPyramidServer extends AbstractTileableImageServer {
+
+    private static final int NATIVE_TILE_SIZE = 512;
+    private static final int CELL_SIZE = 256;
+    private static final Color BACKGROUND = new Color(240, 230, 240);
+    private static final Color NUCLEUS = new Color(120, 60, 140);
+
+    private final ImageServerMetadata metadata;
+
+    /**
+     * Creates a server of the given full resolution size and pixel size in microns.
+     */
+    public SyntheticPyramidServer(int width, int height, double pixelSize) {
+        metadata = new ImageServerMetadata.Builder()
+                .width(width)
+                .height(height)
+                .name("synthetic-pyramid")
+                .rgb(true)
+                .pixelType(PixelType.UINT8)
+                .channels(ImageChannel.getDefaultRGBChannels())
+                .pixelSizeMicrons(pixelSize, pixelSize)
+                .preferredTileSize(NATIVE_TILE_SIZE, NATIVE_TILE_SIZE)
+                .levelsFromDownsamples(1, 4, 16, 64)
+                .build();
+    }
+
+    @Override
+    protected BufferedImage readTile(TileRequest tileRequest) {
+        var img = new BufferedImage(tileRequest.getTileWidth(), tileRequest.getTileHeight(), BufferedImage.TYPE_INT_RGB);
+        var g2d = img.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setColor(BACKGROUND);
+        g2d.fillRect(0, 0, img.getWidth(), img.getHeight());
+
+        double downsample = tileRequest.getDownsample();
+        g2d.scale(1.0 / downsample, 1.0 / downsample);
+        g2d.translate(-tileRequest.getImageX(), -tileRequest.getImageY());
+        g2d.setColor(NUCLEUS);
+
+        int x0 = Math.floorDiv(tileRequest.getImageX(), CELL_SIZE) * CELL_SIZE;
+        int y0 = Math.floorDiv(tileRequest.getImageY(), CELL_SIZE) * CELL_SIZE;
+        int x1 = tileRequest.getImageX() + tileRequest.getImageWidth();
+        int y1 = tileRequest.getImageY() + tileRequest.getImageHeight();
+        for (int y = y0; y < y1; y += CELL_SIZE) {
+            for (int x = x0; x < x1; x += CELL_SIZE) {
+                // Vary the size per cell so neighbouring tiles are not identical
+                int size = CELL_SIZE / 4 + Math.floorMod(x * 31 + y * 17, CELL_SIZE / 2);
+                g2d.fillOval(x + (CELL_SIZE - size) / 2, y + (CELL_SIZE - size) / 2, size, size);
+            }
+        }
+        g2d.dispose();
+        return img;
+    }
+
+    @Override
+    protected ServerBuilder<BufferedImage> createServerBuilder() {
+        return null;
+    }
+
+    @Override
+    protected String createID() {
+        return "synthetic-pyramid:" + metadata.getWidth() + "x" + metadata.getHeight();
+    }
+
+    @Override
+    public Collection<URI> getURIs() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public String getServerType() {
+        return "Synthetic pyramid";
+    }
+
+    @Override
+    public ImageServerMetadata getOriginalMetadata() {
+        return metadata;
+    }
+}
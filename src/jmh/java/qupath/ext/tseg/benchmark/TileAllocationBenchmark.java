@@ -0,0 +1,119 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import qupath.ext.tseg.config.ExportConfig;
+import qupath.ext.tseg.inference.io.AreaAverage;
+import qupath.ext.tseg.inference.io.RasterPool;
+import qupath.ext.tseg.inference.io.StripTileSource;
+import qupath.ext.tseg.inference.tile.TileGrid;
+import qupath.ext.tseg.inference.tile.TileReadPlan;
+import qupath.lib.regions.ImageRegion;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation per tile on the read path, to be compared through the {@code gc.alloc.rate.norm} result of the
+ * GC profiler. Resampling into a pooled raster should allocate nothing in steady state; strip tile reads only
+ * allocate inside the server, which composes a new image for every strip.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TileAllocationBenchmark {
+
+    private static final int IMAGE_SIZE = 32768;
+    private static final int ROI_SIZE = 8192;
+    private static final int LEVEL_TILE_SIZE = 508;
+    private static final double NON_INTEGER_TARGET_MPP = 3.965;
+
+    private BufferedImage levelTile;
+    private final RasterPool pool = new RasterPool(4);
+    private final AreaAverage resampler = new AreaAverage();
+
+    private StripTileSource stripSource;
+    private List<ImageRegion> tiles;
+    private int next;
+
+    @Setup
+    public void setup() throws IOException {
+        var server = new CachingPyramidServer(IMAGE_SIZE, IMAGE_SIZE, BenchmarkData.SOURCE_MPP, 1024);
+        levelTile = new BufferedImage(LEVEL_TILE_SIZE, LEVEL_TILE_SIZE, BufferedImage.TYPE_INT_RGB);
+        var g = levelTile.createGraphics();
+        g.drawImage(server.getDefaultThumbnail(0, 0), 0, 0, LEVEL_TILE_SIZE, LEVEL_TILE_SIZE, null);
+        g.dispose();
+
+        var spec = new ExportConfig(
+                BenchmarkData.squareROI(ROI_SIZE),
+                NON_INTEGER_TARGET_MPP,
+                BenchmarkData.SOURCE_MPP,
+                BenchmarkData.TILE_SIZE,
+                BenchmarkData.TILE_OVERLAP,
+                ".png"
+        );
+        var grid = TileGrid.of(spec, IMAGE_SIZE, IMAGE_SIZE).tiles();
+        stripSource = new StripTileSource(server, spec, TileReadPlan.of(server, spec, grid));
+        tiles = stripSource.order(grid);
+    }
+
+    @TearDown
+    public void tearDown() {
+        stripSource.close();
+    }
+
+    @Benchmark
+    public BufferedImage resampleAllocating() {
+        return AreaAverage.resample(levelTile, BenchmarkData.TILE_SIZE, BenchmarkData.TILE_SIZE);
+    }
+
+    @Benchmark
+    public int resamplePooled() {
+        var tile = pool.acquire(BenchmarkData.TILE_SIZE, BenchmarkData.TILE_SIZE);
+        resampler.resample(levelTile, tile);
+        int rgb = tile.getRGB(0, 0);
+        pool.release(tile);
+        return rgb;
+    }
+
+    @Benchmark
+    public int readStripTile() throws IOException {
+        var tile = stripSource.read(tiles.get(next));
+        next = (next + 1) % tiles.size();
+        int rgb = tile.getRGB(0, 0);
+        stripSource.release(tile);
+        return rgb;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import qupath.ext.tseg.config.ExportConfig;
+import qupath.ext.tseg.inference.io.TileIO;
+import qupath.ext.tseg.util.Utils;
+import qupath.lib.images.ImageData;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tile export through {@link TileIO#export} on a synthetic in-memory image.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TileExportBenchmark {
+
+    @Param({"2048", "4096"})
+    public int roiSize;
+
+    @Param({".png", ".jpg"})
+    public String imageExtension;
+
+    private ImageData<BufferedImage> imageData;
+    private ExportConfig spec;
+    private Path outputDir;
+
+    @Setup
+    public void setup() throws IOException {
+        imageData = BenchmarkData.syntheticImageData(roiSize, roiSize);
+        spec = new ExportConfig(
+                BenchmarkData.squareROI(roiSize),
+                BenchmarkData.TARGET_MPP,
+                BenchmarkData.SOURCE_MPP,
+                BenchmarkData.TILE_SIZE,
+                BenchmarkData.TILE_OVERLAP,
+                imageExtension
+        );
+        outputDir = Files.createTempDirectory("tseg-bench-tiles");
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTiles() {
+        Utils.clearDir(outputDir);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Utils.clearDir(outputDir);
+        Files.deleteIfExists(outputDir);
+    }
+
+    @Benchmark
+    public int exportTiles() throws IOException {
+        return TileIO.export(imageData, spec, outputDir);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import qupath.ext.tseg.config.ExportConfig;
+import qupath.ext.tseg.inference.io.TileSource;
+import qupath.ext.tseg.inference.tile.TileGrid;
+import qupath.ext.tseg.inference.tile.TileOrder;
+import qupath.lib.regions.ImageRegion;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading all tiles of a large ROI in each {@link TileOrder} through a server with a bounded tile cache.
+ * Tiles are read at full resolution, so a row of the ROI spans more native tiles than the smaller cache holds.
+ * Cache hits and misses are reported as secondary results, next to the read time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TileOrderBenchmark {
+
+    private static final int IMAGE_SIZE = 32768;
+    private static final int ROI_SIZE = 16384;
+
+    @Param({"raster", "serpentine", "hilbert"})
+    public String order;
+
+    @Param({"16", "64"})
+    public int cacheTiles;
+
+    private CachingPyramidServer server;
+    private ExportConfig spec;
+    private List<ImageRegion> tiles;
+
+    /**
+     * Cache hits and misses of the native tiles read.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class CacheCounters {
+
+        public long hits;
+        public long misses;
+    }
+
+    @Setup
+    public void setup() {
+        server = new CachingPyramidServer(IMAGE_SIZE, IMAGE_SIZE, BenchmarkData.SOURCE_MPP, cacheTiles);
+        spec = new ExportConfig(
+                BenchmarkData.squareROI(ROI_SIZE),
+                BenchmarkData.SOURCE_MPP,
+                BenchmarkData.SOURCE_MPP,
+                BenchmarkData.TILE_SIZE,
+                BenchmarkData.TILE_OVERLAP,
+                ".png"
+        );
+        var grid = TileGrid.of(spec, IMAGE_SIZE, IMAGE_SIZE);
+        tiles = TileOrder.fromString(order).order(grid.tiles(), spec);
+    }
+
+    @Setup(Level.Invocation)
+    public void resetCache() {
+        server.reset();
+    }
+
+    @Benchmark
+    public long readTiles(CacheCounters counters) throws IOException {
+        long pixels = 0;
+        try (var source = TileSource.direct(server, spec)) {
+            for (var tile : tiles) {
+                var image = source.read(tile);
+                pixels += (long) image.getWidth() * image.getHeight();
+            }
+        }
+        counters.hits += server.hits();
+        counters.misses += server.misses();
+        return pixels;
+    }
+}
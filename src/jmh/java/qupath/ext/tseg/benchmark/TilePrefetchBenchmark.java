@@ -0,0 +1,121 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import qupath.ext.tseg.config.ExportConfig;
+import qupath.ext.tseg.inference.io.TileIO;
+import qupath.ext.tseg.inference.io.TileSource;
+import qupath.ext.tseg.inference.tile.TileGrid;
+import qupath.ext.tseg.util.Utils;
+import qupath.lib.images.ImageData;
+import qupath.lib.regions.ImageRegion;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tile export from a server with simulated per-tile latency, with different numbers of reads in flight.
+ * {@code default} is the source used by runs ({@link TileSource#create}, shared strips for RGB images);
+ * {@code direct} reads every tile with its own region request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class TilePrefetchBenchmark {
+
+    private static final int IMAGE_SIZE = 32768;
+    private static final int ROI_SIZE = 4096;
+
+    @Param({"0", "20"})
+    public long latencyMillis;
+
+    @Param({"1", "4", "16"})
+    public int inFlight;
+
+    @Param({"direct", "default"})
+    public String source;
+
+    private ImageData<BufferedImage> imageData;
+    private ExportConfig spec;
+    private List<ImageRegion> tiles;
+    private Path outputDir;
+
+    @Setup
+    public void setup() throws IOException {
+        var server = new LatencyImageServer(
+                new SyntheticPyramidServer(IMAGE_SIZE, IMAGE_SIZE, BenchmarkData.SOURCE_MPP), latencyMillis);
+        imageData = new ImageData<>(server);
+        spec = new ExportConfig(
+                BenchmarkData.squareROI(ROI_SIZE),
+                BenchmarkData.TARGET_MPP,
+                BenchmarkData.SOURCE_MPP,
+                BenchmarkData.TILE_SIZE,
+                BenchmarkData.TILE_OVERLAP,
+                ".png"
+        );
+        tiles = TileGrid.of(spec, IMAGE_SIZE, IMAGE_SIZE).tiles();
+        outputDir = Files.createTempDirectory("tseg-bench-prefetch");
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTiles() {
+        Utils.clearDir(outputDir);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Utils.clearDir(outputDir);
+        Files.deleteIfExists(outputDir);
+    }
+
+    @Benchmark
+    public int exportTiles() throws IOException {
+        try (var tileSource = createSource()) {
+            return TileIO.export(tileSource, imageData, spec, tiles, outputDir, inFlight);
+        }
+    }
+
+    private TileSource createSource() {
+        return switch (source) {
+            case "direct" -> TileSource.direct(imageData.getServer(), spec);
+            case "default" -> TileSource.create(imageData.getServer(), spec, tiles);
+            default -> throw new IllegalArgumentException("Unknown source: " + source);
+        };
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import qupath.ext.tseg.config.ExportConfig;
+import qupath.ext.tseg.inference.io.LevelTileSource;
+import qupath.ext.tseg.inference.io.StripTileSource;
+import qupath.ext.tseg.inference.io.TileSource;
+import qupath.ext.tseg.inference.tile.TileGrid;
+import qupath.ext.tseg.inference.tile.TileReadPlan;
+import qupath.lib.regions.ImageRegion;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading all tiles of a ROI from a pyramidal server with the available {@link TileSource} strategies.
+ * Target MPPs are chosen to give an exact pyramid level (4) and a non-integer downsample (7.93).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TileReadBenchmark {
+
+    private static final int IMAGE_SIZE = 32768;
+    private static final int ROI_SIZE = 8192;
+
+    @Param({"2.0", "3.965"})
+    public double targetMPP;
+
+    @Param({"direct", "level", "strip"})
+    public String source;
+
+    private SyntheticPyramidServer server;
+    private ExportConfig spec;
+    private List<ImageRegion> tiles;
+
+    @Setup
+    public void setup() {
+        server = new SyntheticPyramidServer(IMAGE_SIZE, IMAGE_SIZE, BenchmarkData.SOURCE_MPP);
+        spec = new ExportConfig(
+                BenchmarkData.squareROI(ROI_SIZE),
+                targetMPP,
+                BenchmarkData.SOURCE_MPP,
+                BenchmarkData.TILE_SIZE,
+                BenchmarkData.TILE_OVERLAP,
+                ".png"
+        );
+        tiles = TileGrid.of(spec, IMAGE_SIZE, IMAGE_SIZE).tiles();
+    }
+
+    @Benchmark
+    public long readTiles() throws IOException {
+        long pixels = 0;
+        try (var tileSource = createSource()) {
+            for (var tile : tileSource.order(tiles)) {
+                var image = tileSource.read(tile);
+                pixels += (long) image.getWidth() * image.getHeight();
+                tileSource.release(image);
+            }
+        }
+        return pixels;
+    }
+
+    private TileSource createSource() {
+        return switch (source) {
+            case "direct" -> TileSource.direct(server, spec);
+            case "level" -> new LevelTileSource(server, spec, TileReadPlan.of(server, spec, tiles));
+            case "strip" -> new StripTileSource(server, spec, TileReadPlan.of(server, spec, tiles));
+            default -> throw new IllegalArgumentException("Unknown source: " + source);
+        };
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference.io;
+
+import qupath.ext.tseg.config.ExportConfig;
+import qupath.ext.tseg.inference.tile.TileReadPlan;
+import qupath.lib.images.servers.ImageServer;
+import qupath.lib.regions.ImageRegion;
+import qupath.lib.regions.RegionRequest;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * Reads tiles from a single pyramid level at its native downsample, so the server only copies native tiles
+ * without resampling, and downsamples the remaining factor with an area average.
+ * Resampled tiles are taken from a {@link RasterPool}, with one resampler per reading thread.
+ * <p>
+ * Runs read RGB tiles through {@link StripTileSource}, which shares each level read between the tiles of a strip;
+ * this per-tile reader is kept with the benchmarks as the baseline it is measured against.
+ */
+public class LevelTileSource implements TileSource {
+
+    private static final int POOL_CAPACITY = 32;
+
+    private final ImageServer<BufferedImage> server;
+    private final ExportConfig spec;
+    private final TileReadPlan plan;
+    private final RasterPool pool = new RasterPool(POOL_CAPACITY);
+    private final ThreadLocal<AreaAverage> resampler = ThreadLocal.withInitial(AreaAverage::new);
+
+    public LevelTileSource(ImageServer<BufferedImage> server, ExportConfig spec, TileReadPlan plan) {
+        this.server = server;
+        this.spec = spec;
+        this.plan = plan;
+    }
+
+    @Override
+    public BufferedImage read(ImageRegion tile) throws IOException {
+        var image = server.readRegion(RegionRequest.createInstance(server.getPath(), plan.levelDownsample(), tile));
+        if (plan.isExactLevel()) return image;
+        var output = pool.acquire(
+                TileSource.scaledSize(tile.getWidth(), spec.downsample()),
+                TileSource.scaledSize(tile.getHeight(), spec.downsample()));
+        resampler.get().resample(image, output);
+        return output;
+    }
+
+    /**
+     * Returns a resampled tile to the pool. Tiles read at an exact level belong to the server and are dropped.
+     */
+    @Override
+    public void release(BufferedImage image) {
+        if (!plan.isExactLevel()) pool.release(image);
+    }
+
+    public TileReadPlan plan() {
+        return plan;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference.tensor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Per-pixel kernels for preparing model input and reading model output:
+ * normalizing interleaved RGB pixels into planar float tensors and thresholding logits into binary masks.
+ * These are prototypes for a Java-side tensor path, kept with the benchmarks; the extension leaves this work
+ * to the Python worker.
+ * <p>
+ * A SIMD implementation built on the incubating Vector API is used when the {@code jdk.incubator.vector}
+ * module is available (the benchmark JVM is started with {@code --add-modules jdk.incubator.vector}), and a
+ * scalar one otherwise. Both produce identical results. Setting {@code -Dtseg.vector=false} forces the scalar kernels.
+ */
+public interface PixelOps {
+
+    /**
+     * ImageNet channel means, on a 0-1 scale.
+     */
+    float[] IMAGENET_MEAN = {0.485f, 0.456f, 0.406f};
+
+    /**
+     * ImageNet channel standard deviations, on a 0-1 scale.
+     */
+    float[] IMAGENET_STD = {0.229f, 0.224f, 0.225f};
+
+    /**
+     * Normalizes packed RGB pixels into a planar tensor of three channels ({@code [R..., G..., B...]}),
+     * computing {@code (value / 255 - mean[c]) / std[c]} for each channel.
+     *
+     * @param rgb    packed {@code 0xRRGGBB} pixels, as stored by {@link java.awt.image.BufferedImage#TYPE_INT_RGB}
+     * @param pixels number of pixels to normalize
+     * @param mean   channel means on a 0-1 scale
+     * @param std    channel standard deviations on a 0-1 scale
+     * @param planar output of at least {@code 3 * pixels} values
+     */
+    void normalize(int[] rgb, int pixels, float[] mean, float[] std, float[] planar);
+
+    /**
+     * Thresholds logits into a mask, setting pixels whose sigmoid probability is at least the confidence
+     * to 255 and all others to 0. The confidence is converted to a logit once, so no sigmoid is evaluated
+     * per pixel.
+     *
+     * @param logits     model output logits
+     * @param pixels     number of pixels to threshold
+     * @param confidence probability cut between 0 and 1
+     * @param mask       output of at least {@code pixels} values
+     */
+    void threshold(float[] logits, int pixels, double confidence, byte[] mask);
+
+    /**
+     * Gets the fastest available implementation.
+     */
+    static PixelOps get() {
+        return Holder.BEST;
+    }
+
+    /**
+     * Gets the scalar implementation, available on every JVM.
+     */
+    static PixelOps scalar() {
+        return ScalarPixelOps.INSTANCE;
+    }
+
+    /**
+     * Checks if the SIMD implementation is in use.
+     */
+    static boolean isVectorized() {
+        return !(Holder.BEST instanceof ScalarPixelOps);
+    }
+
+    /**
+     * Converts a probability cut into the equivalent logit cut.
+     */
+    static float logitThreshold(double confidence) {
+        if (confidence <= 0) return Float.NEGATIVE_INFINITY;
+        if (confidence >= 1) return Float.POSITIVE_INFINITY;
+        return (float) Math.log(confidence / (1 - confidence));
+    }
+
+    /**
+     * Lazily selects the implementation, so the Vector API is only touched if the module is present.
+     */
+    final class Holder {
+
+        private static final Logger LOGGER = LoggerFactory.getLogger(PixelOps.class);
+        private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+        static final PixelOps BEST = select();
+
+        private Holder() {
+        }
+
+        private static PixelOps select() {
+            if (!Boolean.parseBoolean(System.getProperty("tseg.vector", "true"))
+                    || ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+                LOGGER.debug("Using scalar pixel kernels");
+                return ScalarPixelOps.INSTANCE;
+            }
+            try {
+                var ops = (PixelOps) Class.forName("qupath.ext.tseg.inference.tensor.VectorPixelOps")
+                        .getDeclaredConstructor()
+                        .newInstance();
+                LOGGER.debug("Using vectorized pixel kernels");
+                return ops;
+            } catch (ReflectiveOperationException | LinkageError e) {
+                LOGGER.warn("Vector API unavailable, using scalar pixel kernels: {}", e.getMessage());
+                return ScalarPixelOps.INSTANCE;
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference.tensor;
+
+/**
+ * Scalar implementation of the pixel kernels.
+ */
+final class ScalarPixelOps implements PixelOps {
+
+    static final ScalarPixelOps INSTANCE = new ScalarPixelOps();
+
+    private ScalarPixelOps() {
+    }
+
+    @Override
+    public void normalize(int[] rgb, int pixels, float[] mean, float[] std, float[] planar) {
+        for (int c = 0; c < 3; c++) {
+            int shift = 16 - 8 * c;
+            float scale = scale(std[c]);
+            float offset = offset(mean[c], std[c]);
+            int base = c * pixels;
+            for (int i = 0; i < pixels; i++) {
+                planar[base + i] = ((rgb[i] >> shift) & 0xff) * scale + offset;
+            }
+        }
+    }
+
+    @Override
+    public void threshold(float[] logits, int pixels, double confidence, byte[] mask) {
+        float cut = PixelOps.logitThreshold(confidence);
+        for (int i = 0; i < pixels; i++) {
+            mask[i] = logits[i] >= cut ? (byte) 255 : 0;
+        }
+    }
+
+    /**
+     * Factor applied to 0-255 values, folding the division by 255 and by the standard deviation.
+     */
+    static float scale(float std) {
+        return 1f / (255f * std);
+    }
+
+    /**
+     * Offset added after scaling, subtracting the mean in standard deviations.
+     */
+    static float offset(float mean, float std) {
+        return -mean / std;
+    }
+}
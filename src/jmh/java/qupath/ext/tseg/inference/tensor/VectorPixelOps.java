@@ -0,0 +1,82 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference.tensor;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD implementation of the pixel kernels on the Vector API.
+ * Lanes are at least 256 bits wide, so a mask of float lanes always maps to a valid byte shape;
+ * remaining pixels that do not fill a vector are processed by the scalar loop.
+ * Only loaded through {@link PixelOps#get()} when the {@code jdk.incubator.vector} module is present.
+ */
+final class VectorPixelOps implements PixelOps {
+
+    private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED.vectorBitSize() >= 256
+            ? FloatVector.SPECIES_PREFERRED
+            : FloatVector.SPECIES_256;
+    private static final VectorSpecies<Integer> INTS = VectorSpecies.of(int.class, FLOATS.vectorShape());
+    private static final VectorSpecies<Byte> BYTES = VectorSpecies.of(byte.class,
+            VectorShape.forBitSize(FLOATS.vectorBitSize() / 4));
+
+    @Override
+    public void normalize(int[] rgb, int pixels, float[] mean, float[] std, float[] planar) {
+        int bound = INTS.loopBound(pixels);
+        for (int c = 0; c < 3; c++) {
+            int shift = 16 - 8 * c;
+            float scale = ScalarPixelOps.scale(std[c]);
+            float offset = ScalarPixelOps.offset(mean[c], std[c]);
+            int base = c * pixels;
+            int i = 0;
+            for (; i < bound; i += INTS.length()) {
+                var values = IntVector.fromArray(INTS, rgb, i)
+                        .lanewise(VectorOperators.LSHR, shift)
+                        .lanewise(VectorOperators.AND, 0xff);
+                ((FloatVector) values.convert(VectorOperators.I2F, 0))
+                        .mul(scale)
+                        .add(offset)
+                        .intoArray(planar, base + i);
+            }
+            for (; i < pixels; i++) {
+                planar[base + i] = ((rgb[i] >> shift) & 0xff) * scale + offset;
+            }
+        }
+    }
+
+    @Override
+    public void threshold(float[] logits, int pixels, double confidence, byte[] mask) {
+        float cut = PixelOps.logitThreshold(confidence);
+        var on = ByteVector.broadcast(BYTES, (byte) 255);
+        var off = ByteVector.zero(BYTES);
+        int bound = FLOATS.loopBound(pixels);
+        int i = 0;
+        for (; i < bound; i += FLOATS.length()) {
+            var above = FloatVector.fromArray(FLOATS, logits, i).compare(VectorOperators.GE, cut);
+            off.blend(on, above.cast(BYTES)).intoArray(mask, i);
+        }
+        for (; i < pixels; i++) {
+            mask[i] = logits[i] >= cut ? (byte) 255 : 0;
+        }
+    }
+}
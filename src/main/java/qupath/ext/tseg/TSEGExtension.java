@@ -22,6 +22,10 @@ import javafx.scene.control.MenuItem;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import qupath.ext.tseg.config.PreferenceManager;
+import qupath.ext.tseg.inference.InferenceDirectory;
+import qupath.ext.tseg.inference.io.TileStaging;
+import qupath.ext.tseg.jfr.JfrSettings;
+import qupath.ext.tseg.metrics.MetricsExporter;
 import qupath.ext.tseg.ui.WindowManager;
 import qupath.ext.tseg.util.Utils;
 import qupath.lib.common.Version;
@@ -59,6 +63,20 @@ public class TSEGExtension implements QuPathExtension, GitHubProject {
         isInstalled = true;
         addMenuItem(qupath);
         PreferenceManager.addPreferencesToPane(qupath, EXTENSION_NAME);
+        MetricsExporter.start();
+        TileStaging.DEFAULT.install(qupath);
+        extractJfrSettings();
+    }
+
+    /**
+     * Places the Flight Recorder settings in the inference directory, where JVM options can refer to them.
+     */
+    private static void extractJfrSettings() {
+        try {
+            JfrSettings.extract(InferenceDirectory.DEFAULT.main());
+        } catch (RuntimeException e) {
+            LOGGER.debug("Inference directory not available, Flight Recorder settings not written", e);
+        }
     }
 
     private void addMenuItem(QuPathGUI qupath) {
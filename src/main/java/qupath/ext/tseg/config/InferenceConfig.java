@@ -28,7 +28,19 @@ public record InferenceConfig(
         double tileTargetMPP,
         double tileOverlap,
         String tileImageFormat,
-        double inferenceConfidence
+        String tileOrder,
+        int prefetchRequests,
+        double inferenceConfidence,
+        double minPolygonArea,
+        double simplifyTolerance,
+        int streamingBlockSize,
+        int diskBudgetMB,
+        int memoryBudgetMB,
+        int componentWorkers,
+        int workerStartupTimeoutSec,
+        int workerIdleTimeoutSec,
+        int workerTileTimeoutSec,
+        int workerRetries
 ) {
 
     public static final InferenceConfig DEFAULT = loadFromProperties();
@@ -45,7 +57,19 @@ public record InferenceConfig(
                 Double.parseDouble(properties.getProperty("qupath.tile.targetMPP")),
                 Double.parseDouble(properties.getProperty("qupath.tile.overlap")),
                 properties.getProperty("qupath.tile.imageFormat"),
-                Double.parseDouble(properties.getProperty("qupath.inference.confidence"))
+                properties.getProperty("qupath.tile.order"),
+                Integer.parseInt(properties.getProperty("qupath.tile.prefetch")),
+                Double.parseDouble(properties.getProperty("qupath.inference.confidence")),
+                Double.parseDouble(properties.getProperty("qupath.result.minArea")),
+                Double.parseDouble(properties.getProperty("qupath.result.simplifyTolerance")),
+                Integer.parseInt(properties.getProperty("qupath.inference.blockSize")),
+                Integer.parseInt(properties.getProperty("qupath.inference.diskBudgetMB")),
+                Integer.parseInt(properties.getProperty("qupath.inference.memoryBudgetMB")),
+                Integer.parseInt(properties.getProperty("qupath.inference.componentWorkers")),
+                Integer.parseInt(properties.getProperty("qupath.worker.startupTimeoutSec")),
+                Integer.parseInt(properties.getProperty("qupath.worker.idleTimeoutSec")),
+                Integer.parseInt(properties.getProperty("qupath.worker.tileTimeoutSec")),
+                Integer.parseInt(properties.getProperty("qupath.worker.retries"))
         );
     }
 }
@@ -18,6 +18,7 @@
 
 package qupath.ext.tseg.config;
 
+import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.Property;
@@ -47,6 +48,47 @@ public class PreferenceManager {
             "defaultModel", "");
     public static final DoubleProperty CONFIDENCE = PathPrefs.createPersistentPreference(
             "confidence", InferenceConfig.DEFAULT.inferenceConfidence());
+    public static final StringProperty TILE_ORDER = PathPrefs.createPersistentPreference(
+            "tileOrder", InferenceConfig.DEFAULT.tileOrder());
+    public static final IntegerProperty PREFETCH_REQUESTS = PathPrefs.createPersistentPreference(
+            "prefetchRequests", InferenceConfig.DEFAULT.prefetchRequests());
+    public static final BooleanProperty PREFETCH_ON_SELECTION = PathPrefs.createPersistentPreference(
+            "prefetchOnSelection", false);
+    public static final IntegerProperty STREAMING_BLOCK_SIZE = PathPrefs.createPersistentPreference(
+            "streamingBlockSize", InferenceConfig.DEFAULT.streamingBlockSize());
+    public static final IntegerProperty DISK_BUDGET = PathPrefs.createPersistentPreference(
+            "diskBudgetMB", InferenceConfig.DEFAULT.diskBudgetMB());
+    public static final IntegerProperty MEMORY_BUDGET = PathPrefs.createPersistentPreference(
+            "memoryBudgetMB", InferenceConfig.DEFAULT.memoryBudgetMB());
+    public static final IntegerProperty COMPONENT_WORKERS = PathPrefs.createPersistentPreference(
+            "componentWorkers", InferenceConfig.DEFAULT.componentWorkers());
+    public static final IntegerProperty WORKER_STARTUP_TIMEOUT = PathPrefs.createPersistentPreference(
+            "workerStartupTimeoutSec", InferenceConfig.DEFAULT.workerStartupTimeoutSec());
+    public static final IntegerProperty WORKER_IDLE_TIMEOUT = PathPrefs.createPersistentPreference(
+            "workerIdleTimeoutSec", InferenceConfig.DEFAULT.workerIdleTimeoutSec());
+    public static final IntegerProperty WORKER_TILE_TIMEOUT = PathPrefs.createPersistentPreference(
+            "workerTileTimeoutSec", InferenceConfig.DEFAULT.workerTileTimeoutSec());
+    public static final IntegerProperty WORKER_RETRIES = PathPrefs.createPersistentPreference(
+            "workerRetries", InferenceConfig.DEFAULT.workerRetries());
+    public static final DoubleProperty MIN_POLYGON_AREA = PathPrefs.createPersistentPreference(
+            "minPolygonArea", InferenceConfig.DEFAULT.minPolygonArea());
+    public static final DoubleProperty SIMPLIFY_TOLERANCE = PathPrefs.createPersistentPreference(
+            "simplifyTolerance", InferenceConfig.DEFAULT.simplifyTolerance());
+    public static final DoubleProperty PREDICTION_THRESHOLD = PathPrefs.createPersistentPreference(
+            "predictionThreshold", 0.5);
+    public static final BooleanProperty SHOW_TILE_PLAN = PathPrefs.createPersistentPreference(
+            "showTilePlan", false);
+    // Recorded from finished runs to estimate run times, not shown in the preferences pane
+    public static final DoubleProperty LAUNCH_OVERHEAD_SECONDS = PathPrefs.createPersistentPreference(
+            "launchOverheadSeconds", -1.0);
+    public static final DoubleProperty SECONDS_PER_TILE = PathPrefs.createPersistentPreference(
+            "secondsPerTile", -1.0);
+    public static final StringProperty METRICS_FILE = PathPrefs.createPersistentPreference(
+            "metricsFile", "");
+    public static final IntegerProperty METRICS_INTERVAL = PathPrefs.createPersistentPreference(
+            "metricsInterval", 15);
+    public static final IntegerProperty METRICS_PORT = PathPrefs.createPersistentPreference(
+            "metricsPort", 0);
     private static final ResourceBundle PREFERENCES_BUNDLE =
             ResourceBundle.getBundle("qupath.ext.tseg.preference");
     private static final List<PrefMeta> PREFERENCES = List.of(
@@ -55,7 +97,25 @@ public class PreferenceManager {
             new PrefMeta(TILE_OVERLAP, Double.class, "label.tileOverlap", "desc.tileOverlap"),
             new PrefMeta(TILE_IMAGE_FORMAT, String.class, "label.tileExtension", "desc.tileExtension"),
             new PrefMeta(DEFAULT_MODEL, String.class, "label.defaultModel", "desc.defaultModel"),
-            new PrefMeta(CONFIDENCE, Double.class, "label.confidence", "desc.confidence")
+            new PrefMeta(CONFIDENCE, Double.class, "label.confidence", "desc.confidence"),
+            new PrefMeta(TILE_ORDER, String.class, "label.tileOrder", "desc.tileOrder"),
+            new PrefMeta(PREFETCH_REQUESTS, Integer.class, "label.prefetchRequests", "desc.prefetchRequests"),
+            new PrefMeta(PREFETCH_ON_SELECTION, Boolean.class, "label.prefetchOnSelection", "desc.prefetchOnSelection"),
+            new PrefMeta(STREAMING_BLOCK_SIZE, Integer.class, "label.streamingBlockSize", "desc.streamingBlockSize"),
+            new PrefMeta(DISK_BUDGET, Integer.class, "label.diskBudget", "desc.diskBudget"),
+            new PrefMeta(MEMORY_BUDGET, Integer.class, "label.memoryBudget", "desc.memoryBudget"),
+            new PrefMeta(COMPONENT_WORKERS, Integer.class, "label.componentWorkers", "desc.componentWorkers"),
+            new PrefMeta(WORKER_STARTUP_TIMEOUT, Integer.class, "label.workerStartupTimeout", "desc.workerStartupTimeout"),
+            new PrefMeta(WORKER_IDLE_TIMEOUT, Integer.class, "label.workerIdleTimeout", "desc.workerIdleTimeout"),
+            new PrefMeta(WORKER_TILE_TIMEOUT, Integer.class, "label.workerTileTimeout", "desc.workerTileTimeout"),
+            new PrefMeta(WORKER_RETRIES, Integer.class, "label.workerRetries", "desc.workerRetries"),
+            new PrefMeta(MIN_POLYGON_AREA, Double.class, "label.minPolygonArea", "desc.minPolygonArea"),
+            new PrefMeta(SIMPLIFY_TOLERANCE, Double.class, "label.simplifyTolerance", "desc.simplifyTolerance"),
+            new PrefMeta(PREDICTION_THRESHOLD, Double.class, "label.predictionThreshold", "desc.predictionThreshold"),
+            new PrefMeta(SHOW_TILE_PLAN, Boolean.class, "label.showTilePlan", "desc.showTilePlan"),
+            new PrefMeta(METRICS_FILE, String.class, "label.metricsFile", "desc.metricsFile"),
+            new PrefMeta(METRICS_INTERVAL, Integer.class, "label.metricsInterval", "desc.metricsInterval"),
+            new PrefMeta(METRICS_PORT, Integer.class, "label.metricsPort", "desc.metricsPort")
     );
 
     /**
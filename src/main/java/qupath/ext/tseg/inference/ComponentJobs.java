@@ -0,0 +1,106 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference;
+
+import qupath.lib.regions.ImageRegion;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Runs the separate components of a job side by side on a fixed number of worker slots.
+ * <p>
+ * A slot runs one component at a time, so whatever a job keeps per slot, such as scratch directories or a
+ * running worker, is never used by two components at once.
+ */
+final class ComponentJobs {
+
+    /**
+     * Work done for one component on a worker slot.
+     */
+    @FunctionalInterface
+    interface Job<T> {
+
+        /**
+         * Processes the component on the slot, numbered from 0.
+         */
+        List<T> run(int slot, List<ImageRegion> component) throws IOException, InterruptedException;
+    }
+
+    private ComponentJobs() {
+    }
+
+    /**
+     * Gets the number of slots for a job of the given number of components, at least 1 and at most the
+     * configured number of workers.
+     */
+    static int workers(int configured, int components) {
+        return Math.max(1, Math.min(configured, components));
+    }
+
+    /**
+     * Runs the job for each component, up to {@code workers} at once, and returns the results in component order.
+     * The jobs still running are interrupted when one fails or the calling thread is interrupted.
+     */
+    static <T> List<T> run(List<List<ImageRegion>> components, int workers, Job<T> job)
+            throws IOException, InterruptedException {
+        var slots = new LinkedBlockingQueue<Integer>();
+        for (int i = 0; i < workers; i++) slots.add(i);
+        var executor = Executors.newFixedThreadPool(workers, r -> {
+            var thread = new Thread(r, "tseg-component");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<List<T>>> jobs = new ArrayList<>();
+            for (var component : components) {
+                jobs.add(executor.submit(() -> {
+                    int slot = slots.take();
+                    try {
+                        return job.run(slot, component);
+                    } finally {
+                        slots.add(slot);
+                    }
+                }));
+            }
+            List<T> results = new ArrayList<>();
+            for (var result : jobs) {
+                results.addAll(await(result));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <T> T await(Future<T> job) throws IOException, InterruptedException {
+        try {
+            return job.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IOException("Component job failed", e.getCause());
+        }
+    }
+}
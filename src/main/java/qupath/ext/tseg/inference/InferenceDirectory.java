@@ -62,8 +62,13 @@ public record InferenceDirectory(Path main, Path repo, Path models, Path roi, Pa
      * Creates an InferenceDirectory with the given names.
      */
     public static InferenceDirectory create(String mainInferenceDirName, String repoName) throws IOException {
-        Path userDir = getQuPathUserDir();
-        Path main = userDir.resolve(mainInferenceDirName);
+        return create(getQuPathUserDir().resolve(mainInferenceDirName), repoName);
+    }
+
+    /**
+     * Creates an InferenceDirectory rooted at the given main directory.
+     */
+    public static InferenceDirectory create(Path main, String repoName) throws IOException {
         Path repo = main.resolve(repoName);
         Path models = main.resolve("models");
         Path output = main.resolve(".output");
@@ -75,4 +80,25 @@ public record InferenceDirectory(Path main, Path repo, Path models, Path roi, Pa
 
         return new InferenceDirectory(main, repo, models, roi, output);
     }
+
+    /**
+     * Creates a directory set with its own roi and output directories under {@code .jobs/<name>},
+     * sharing the repository and models, for jobs that run next to the main inference.
+     */
+    public InferenceDirectory scratch(String name) throws IOException {
+        Path job = main.resolve(".jobs").resolve(name);
+        Path jobRoi = job.resolve(".roi");
+        Path jobOutput = job.resolve(".output");
+        Files.createDirectories(jobRoi);
+        Files.createDirectories(jobOutput);
+        return new InferenceDirectory(main, repo, models, jobRoi, jobOutput);
+    }
+
+    /**
+     * Gets the worker log file of this directory set, next to its roi and output directories, so workers
+     * running in separate scratch directories never share a log.
+     */
+    public Path log() {
+        return roi.getParent().resolve("infer.log");
+    }
 }
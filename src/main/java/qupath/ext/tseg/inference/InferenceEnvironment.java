@@ -0,0 +1,40 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference;
+
+/**
+ * Directories and worker launcher used to run inference.
+ */
+public record InferenceEnvironment(InferenceDirectory directory, WorkerLauncher launcher) {
+
+    private static final String INFERENCE_SCRIPT = "infer.py";
+
+    public static final InferenceEnvironment DEFAULT = new InferenceEnvironment(
+            InferenceDirectory.DEFAULT,
+            WorkerLauncher.cachedInterpreter(
+                    InferenceDirectory.DEFAULT, InferenceDirectory.DEFAULT.repo().resolve(INFERENCE_SCRIPT))
+    );
+
+    /**
+     * Creates an environment with the same launcher and other directories.
+     */
+    public InferenceEnvironment withDirectory(InferenceDirectory directory) {
+        return new InferenceEnvironment(directory, launcher);
+    }
+}
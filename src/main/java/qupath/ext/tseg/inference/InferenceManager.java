@@ -21,13 +21,36 @@ package qupath.ext.tseg.inference;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.util.GeometryFixer;
+import org.locationtech.jts.operation.overlayng.OverlayNG;
+import org.locationtech.jts.operation.overlayng.OverlayNGRobust;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import qupath.ext.tseg.config.ExportConfig;
 import qupath.ext.tseg.config.PreferenceManager;
+import qupath.ext.tseg.inference.geometry.PolygonMerger;
+import qupath.ext.tseg.inference.geometry.ResultGeometry;
+import qupath.ext.tseg.inference.io.PredictionStore;
 import qupath.ext.tseg.inference.io.TileIO;
-import qupath.fx.dialogs.Dialogs;
+import qupath.ext.tseg.inference.io.TileStaging;
+import qupath.ext.tseg.inference.tile.ChunkPlan;
+import qupath.ext.tseg.inference.tile.TileBlocks;
+import qupath.ext.tseg.inference.tile.TileGrid;
+import qupath.ext.tseg.inference.tile.TileOrder;
+import qupath.ext.tseg.inference.tile.TileReadPlan;
+import qupath.ext.tseg.jfr.InferenceWorkerEvent;
+import qupath.ext.tseg.metrics.MetricsExporter;
+import qupath.ext.tseg.metrics.MetricsRegistry;
+import qupath.ext.tseg.util.Utils;
 import qupath.lib.images.ImageData;
+import qupath.lib.images.servers.ServerTools;
+import qupath.lib.objects.PathObject;
+import qupath.lib.objects.classes.PathClass;
+import qupath.lib.regions.ImageRegion;
+import qupath.lib.roi.GeometryTools;
+import qupath.lib.roi.RoiTools;
 import qupath.lib.roi.interfaces.ROI;
 import qupath.lib.scripting.QP;
 
@@ -35,6 +58,15 @@ import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Manages inference scripts and execution.
@@ -42,78 +74,722 @@ import java.nio.file.Path;
 public class InferenceManager {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(InferenceManager.class);
-    private static final String INFERENCE_LOG = "infer.log";
-    private static final String INFERENCE_SCRIPT = "infer.py";
     private static final String POLYGONS_FILE = "polygons.geojson";
-    private static final String UV_COMMAND = "uv";
-    private static final String UV_RUN = "run";
+    private static final String RUN_REPORT = "infer_report.json";
 
     /**
      * Runs inference on the selected area with the given model.
      */
-    public static Path runInference(
+    public static InferenceResult runInference(
+            ImageData<BufferedImage> imageData,
+            PathObject selectedArea,
             Path modelPath,
             double targetMPP,
             double confidence
     ) throws IOException, InterruptedException {
-        ImageData<BufferedImage> imageData = QP.getCurrentImageData();
+        return runInference(imageData, selectedArea, modelPath, targetMPP, confidence, null, InferenceEnvironment.DEFAULT);
+    }
+
+    /**
+     * Runs inference on the selected area with the given model, reusing the tile grid of a plan computed
+     * beforehand (see {@link #plan}) if it still matches the run's export specification.
+     */
+    public static InferenceResult runInference(
+            ImageData<BufferedImage> imageData,
+            PathObject selectedArea,
+            Path modelPath,
+            double targetMPP,
+            double confidence,
+            TilePlan plan
+    ) throws IOException, InterruptedException {
+        return runInference(imageData, selectedArea, modelPath, targetMPP, confidence, plan, InferenceEnvironment.DEFAULT);
+    }
+
+    /**
+     * Runs inference on the selected area with the given model, directories and worker launcher.
+     */
+    public static InferenceResult runInference(
+            ImageData<BufferedImage> imageData,
+            PathObject selectedArea,
+            Path modelPath,
+            double targetMPP,
+            double confidence,
+            InferenceEnvironment environment
+    ) throws IOException, InterruptedException {
+        return runInference(imageData, selectedArea, modelPath, targetMPP, confidence, null, environment);
+    }
+
+    /**
+     * Runs inference on the selected area with the given model, tile plan, directories and worker launcher.
+     * Result polygons are added to the image hierarchy as children of the selected area, and a
+     * run report with per-stage timings is written next to the inference log.
+     *
+     * @param plan plan computed beforehand, or null to plan the tiles as part of the run
+     */
+    public static InferenceResult runInference(
+            ImageData<BufferedImage> imageData,
+            PathObject selectedArea,
+            Path modelPath,
+            double targetMPP,
+            double confidence,
+            TilePlan plan,
+            InferenceEnvironment environment
+    ) throws IOException, InterruptedException {
+        if (selectedArea == null || selectedArea.getROI() == null) throw new IllegalStateException("No ROI selected");
+        return runInference(imageData, List.of(selectedArea), modelPath, targetMPP, confidence, plan, environment);
+    }
+
+    /**
+     * Runs inference on several selected areas at once with the given model, tile plan, directories and
+     * worker launcher.
+     * <p>
+     * The tiles are planned over the union of the areas, so tiles shared by overlapping or touching areas are
+     * exported and inferred once. The result is clipped to each area and added as children of that area.
+     *
+     * @param plan plan of the union of the areas computed beforehand, or null to plan the tiles as part of the run
+     */
+    public static InferenceResult runInference(
+            ImageData<BufferedImage> imageData,
+            List<PathObject> selectedAreas,
+            Path modelPath,
+            double targetMPP,
+            double confidence,
+            TilePlan plan,
+            InferenceEnvironment environment
+    ) throws IOException, InterruptedException {
+        var report = createReport(imageData, selectedAreas, modelPath);
+        var reportPath = environment.directory().main().resolve(RUN_REPORT);
+        MetricsExporter.start();
+        try {
+            var annotations = runStages(imageData, selectedAreas, modelPath, targetMPP, confidence, plan, environment,
+                    SegmentationCache.DEFAULT, report);
+            LOGGER.info("Inference stages: {}", report.summary());
+            return new InferenceResult(annotations, report);
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            report.setError(e.getMessage());
+            throw e;
+        } finally {
+            MetricsRegistry.DEFAULT.record(report);
+            Throughput.record(report);
+            try {
+                report.write(reportPath);
+            } catch (IOException e) {
+                LOGGER.warn("Could not write run report to {}", reportPath, e);
+            }
+        }
+    }
+
+    /**
+     * Runs inference on the selected areas like {@link #runInference}, but leaves no trace outside the image
+     * hierarchy and the given cache: no metrics are exported or recorded, the recorded throughput in the
+     * preferences is left unchanged, and no run report is written. Used by benchmarks, whose runs must not
+     * change the user's preferences and cached predictions.
+     */
+    public static InferenceResult runUnrecorded(
+            ImageData<BufferedImage> imageData,
+            List<PathObject> selectedAreas,
+            Path modelPath,
+            double targetMPP,
+            double confidence,
+            InferenceEnvironment environment,
+            SegmentationCache cache
+    ) throws IOException, InterruptedException {
+        var report = createReport(imageData, selectedAreas, modelPath);
+        var annotations = runStages(imageData, selectedAreas, modelPath, targetMPP, confidence, null, environment,
+                cache, report);
+        return new InferenceResult(annotations, report);
+    }
+
+    private static RunReport createReport(
+            ImageData<BufferedImage> imageData,
+            List<PathObject> selectedAreas,
+            Path modelPath
+    ) {
         if (imageData == null) throw new IllegalStateException("No image loaded");
+        if (selectedAreas.isEmpty() || selectedAreas.stream().anyMatch(a -> a.getROI() == null))
+            throw new IllegalStateException("No ROI selected");
+        return new RunReport(
+                ServerTools.getDisplayableImageName(imageData.getServer()),
+                modelPath.getFileName().toString()
+        );
+    }
+
+    /**
+     * Runs the pipeline stages and records their timings in the report.
+     * <p>
+     * If a single selected area was segmented before with the same settings, only tiles that were not part of
+     * the previous run are inferred, and the stored prediction is patched in the area they cover.
+     */
+    private static List<PathObject> runStages(
+            ImageData<BufferedImage> imageData,
+            List<PathObject> selectedAreas,
+            Path modelPath,
+            double targetMPP,
+            double confidence,
+            TilePlan plan,
+            InferenceEnvironment environment,
+            SegmentationCache cache,
+            RunReport report
+    ) throws IOException, InterruptedException {
+        var roi = unionROI(selectedAreas);
+        var server = imageData.getServer();
+
+        long start = System.nanoTime();
+        var spec = createExportConfig(imageData, roi, targetMPP);
+        boolean planReused = plan != null && plan.matches(spec);
+        var grid = planReused ? plan.grid() : TileGrid.of(spec, server.getWidth(), server.getHeight());
+        report.setPlanReused(planReused);
+        // Grids of the separate areas, to hand each its part of the result; tiles are shared where they overlap
+        var areaGrids = selectedAreas.size() == 1 ? List.of(grid) : selectedAreas.stream()
+                .map(a -> TileGrid.of(createExportConfig(imageData, a.getROI(), targetMPP),
+                        server.getWidth(), server.getHeight()))
+                .toList();
+        if (selectedAreas.size() > 1) {
+            report.setDeduplication(selectedAreas.size(), areaGrids.stream().mapToInt(TileGrid::size).sum(), grid.size());
+            LOGGER.debug("Planned {} shared tile(s) for {} areas instead of {}",
+                    grid.size(), selectedAreas.size(), report.requestedTileCount());
+        }
+        var settings = SegmentationCache.Settings.of(
+                server.getPath(),
+                modelPath,
+                spec.downsample(),
+                spec.tileSize(),
+                spec.overlapPixels(),
+                confidence
+        );
+        var previous = selectedAreas.size() == 1 ? cache.get(selectedAreas.get(0)) : null;
+        boolean incremental = previous != null && previous.settings().equals(settings);
+        var pending = incremental
+                ? grid.tiles().stream().filter(t -> !previous.tiles().contains(t)).toList()
+                : grid.tiles();
+        var tiles = TileOrder.fromString(PreferenceManager.TILE_ORDER.get()).order(pending, spec);
+        report.setSpec(spec);
+        var readPlan = TileReadPlan.of(server, spec, tiles);
+        report.setReadPlan(readPlan);
+        LOGGER.debug("Reading level {} (downsample {}), {} native tile(s) for {} tile request(s), {} MB decoded instead of {} MB",
+                readPlan.level(), readPlan.levelDownsample(), readPlan.nativeTiles(), readPlan.nativeTileRequests(),
+                readPlan.decodedBytes() >> 20, readPlan.unplannedDecodedBytes() >> 20);
+        report.setSkippedTileCount(grid.skippedTiles() + grid.size() - tiles.size());
+        report.record(RunReport.Stage.PLANNING, start);
+        LOGGER.debug("Planned {} of {} tile(s) at downsample {}", tiles.size(), grid.size(), spec.downsample());
+
+        // Separate fragments of the ROI are processed as separate jobs side by side, so no job spans the gaps
+        // between them; the workers running at once share the disk and memory budgets
+        var components = TileBlocks.components(tiles, spec);
+        int workers = components.size() > 1 ? componentWorkers(components.size()) : 1;
+        // Large full runs are processed block by block, showing provisional results as blocks finish;
+        // jobs exceeding the disk or memory budget are split into blocks that fit it
+        var chunkPlan = chunkPlan(spec, tiles.size(), incremental ? 0 : PreferenceManager.STREAMING_BLOCK_SIZE.get(),
+                workers);
+        report.setChunkPlan(chunkPlan);
+        if (chunkPlan.budgeted()) {
+            LOGGER.info("Estimated {} MB on disk and {} MB of worker memory, processing in blocks of {}x{} tiles",
+                    chunkPlan.diskBytes() >> 20, chunkPlan.memoryBytes() >> 20,
+                    chunkPlan.blockTiles(), chunkPlan.blockTiles());
+        }
+        List<PathObject> provisional = new ArrayList<>();
+        List<PathObject> predicted;
+        if (tiles.isEmpty()) {
+            predicted = List.of();
+        } else if (components.size() > 1) {
+            LOGGER.debug("Inferring {} tile(s) in {} separate component(s) with {} worker(s)",
+                    tiles.size(), components.size(), workers);
+            predicted = inferComponents(imageData, selectedAreas, spec, components, chunkPlan.blockTiles(), workers,
+                    modelPath, confidence, environment, report, provisional);
+        } else {
+            var blocks = TileBlocks.centerOut(tiles, spec, chunkPlan.blockTiles(),
+                    roi.getCentroidX(), roi.getCentroidY());
+            if (blocks.size() == 1) {
+                exportTiles(imageData, spec, tiles, environment.directory(), true, report);
+                predicted = inferExported(environment, spec, tiles, modelPath, confidence, report);
+            } else {
+                LOGGER.debug("Streaming {} tile(s) in {} block(s)", tiles.size(), blocks.size());
+                predicted = streamBlocks(imageData, selectedAreas, spec, blocks, modelPath, confidence,
+                        environment, "block", null, report, provisional);
+            }
+        }
+
+        start = System.nanoTime();
+        double minArea = minPolygonArea(spec);
+        List<Polygon> merged = PolygonMerger.merge(ResultGeometry.geometries(predicted), minArea);
+        PathClass pathClass = predicted.isEmpty() ? null : predicted.get(0).getPathClass();
+        if (incremental) {
+            // Replace the changed area of the stored prediction; polygons meeting at its border are merged again
+            var changedArea = ResultGeometry.tileArea(tiles);
+            List<Geometry> parts = new ArrayList<>(ResultGeometry.polygons(previous.prediction().difference(changedArea)));
+            parts.addAll(ResultGeometry.polygons(ResultGeometry.combine(merged).intersection(changedArea)));
+            merged = PolygonMerger.merge(parts, minArea);
+            if (pathClass == null) pathClass = previous.pathClass();
+        }
+        report.record(RunReport.Stage.IMPORT, start);
+
+        start = System.nanoTime();
+        double tolerance = PreferenceManager.SIMPLIFY_TOLERANCE.get() * spec.downsample();
+        var simplified = ResultGeometry.simplify(merged, tolerance);
+        report.setVertexCounts(ResultGeometry.vertexCount(merged), ResultGeometry.vertexCount(simplified));
+        LOGGER.debug("Simplified {} polygon vertices to {}", report.vertexCount(), report.simplifiedVertexCount());
+        // Cached and stored unsimplified, so incremental runs do not simplify already simplified geometry again
+        var prediction = ResultGeometry.combine(merged);
+        List<List<PathObject>> areaAnnotations = new ArrayList<>();
+        for (var area : selectedAreas) {
+            areaAnnotations.add(ResultGeometry.clipToROI(simplified, area.getROI(), pathClass));
+        }
+        var annotations = areaAnnotations.stream().flatMap(List::stream).toList();
+        report.record(RunReport.Stage.SIMPLIFICATION, start);
+
+        start = System.nanoTime();
+        var hierarchy = imageData.getHierarchy();
+        for (var area : selectedAreas) {
+            var entry = cache.get(area);
+            if (entry != null) hierarchy.removeObjects(entry.objects(), true);
+        }
+        if (!provisional.isEmpty()) {
+            hierarchy.removeObjects(provisional, true);
+        }
+        for (int i = 0; i < selectedAreas.size(); i++) {
+            TileIO.addToHierarchy(hierarchy, selectedAreas.get(i), areaAnnotations.get(i));
+        }
+        report.record(RunReport.Stage.INSERTION, start);
+        report.setPolygonCount(annotations.size());
+
+        start = System.nanoTime();
+        persistPrediction(imageData, spec, modelPath, prediction, roi,
+                TileBlocks.components(grid.tiles(), spec), environment.directory());
+        report.record(RunReport.Stage.PERSISTENCE, start);
+
+        for (int i = 0; i < selectedAreas.size(); i++) {
+            var areaTiles = areaGrids.get(i).tiles();
+            var areaPrediction = selectedAreas.size() == 1
+                    ? prediction
+                    : prediction.intersection(ResultGeometry.tileArea(areaTiles));
+            cache.put(selectedAreas.get(i), new SegmentationCache.Entry(
+                    settings, new HashSet<>(areaTiles), areaPrediction, pathClass, areaAnnotations.get(i)));
+        }
+        if (incremental) {
+            LOGGER.info("Re-segmented {} of {} tile(s), {} polygon(s).", tiles.size(), grid.size(), annotations.size());
+        } else {
+            LOGGER.info("Segmented {} tile(s), {} polygon(s).", tiles.size(), annotations.size());
+        }
+        return annotations;
+    }
+
+    /**
+     * Infers the blocks one after another and commits provisional results to the hierarchy as each block finishes.
+     * <p>
+     * While the worker runs on one block, the next block is exported on another thread into the second of two
+     * alternating scratch directories. Polygons of a finished block are merged with provisional polygons of earlier
+     * blocks that reach into its area, and the affected objects are replaced, clipped to each selected area.
+     * Provisional objects are collected in {@code provisional}; the caller replaces them with the final result
+     * once all blocks are done. Several calls may stream separate components at once, sharing that list.
+     *
+     * @param name    name of the scratch directories of this call, unique among calls running at once
+     * @param session worker to infer the blocks in, or null to open one for this call
+     * @return the raw predicted objects of all blocks
+     */
+    private static List<PathObject> streamBlocks(
+            ImageData<BufferedImage> imageData,
+            List<PathObject> selectedAreas,
+            ExportConfig spec,
+            List<List<ImageRegion>> blocks,
+            Path modelPath,
+            double confidence,
+            InferenceEnvironment environment,
+            String name,
+            WorkerSession session,
+            RunReport report,
+            List<PathObject> provisional
+    ) throws IOException, InterruptedException {
+        var environments = new InferenceEnvironment[]{
+                environment.withDirectory(environment.directory().scratch(name + "-a")),
+                environment.withDirectory(environment.directory().scratch(name + "-b"))
+        };
+        var hierarchy = imageData.getHierarchy();
+        // One worker infers all blocks, so the model is loaded once; null if the launcher cannot keep it running
+        var owned = session == null ? WorkerSession.open(environments[0]) : null;
+        var blockSession = session == null ? owned : session;
+        var exporter = Executors.newSingleThreadExecutor(r -> {
+            var thread = new Thread(r, "tseg-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Future<?> export = exporter.submit(() -> {
+                exportTiles(imageData, spec, blocks.get(0), environments[0].directory(), true, report);
+                return null;
+            });
+            List<PathObject> predicted = new ArrayList<>();
+            for (int i = 0; i < blocks.size(); i++) {
+                await(export);
+                if (i + 1 < blocks.size()) {
+                    var next = blocks.get(i + 1);
+                    var nextDirectory = environments[(i + 1) % 2].directory();
+                    export = exporter.submit(() -> {
+                        exportTiles(imageData, spec, next, nextDirectory, true, report);
+                        return null;
+                    });
+                }
+                var block = blocks.get(i);
+                var blockPredicted = inferExported(
+                        environments[i % 2], blockSession, spec, block, modelPath, confidence, report);
+                predicted.addAll(blockPredicted);
+
+                long start = System.nanoTime();
+                var blockArea = TileGrid.bounds(block);
+                synchronized (provisional) {
+                    var touching = provisional.stream()
+                            .filter(o -> ImageRegion.createInstance(o.getROI()).intersects(blockArea))
+                            .toList();
+                    List<Geometry> parts = new ArrayList<>(ResultGeometry.geometries(touching));
+                    parts.addAll(ResultGeometry.geometries(blockPredicted));
+                    var pathClass = blockPredicted.isEmpty() ? null : blockPredicted.get(0).getPathClass();
+                    var merged = PolygonMerger.merge(parts, 0);
+                    if (!touching.isEmpty()) {
+                        hierarchy.removeObjects(touching, true);
+                        provisional.removeAll(touching);
+                    }
+                    for (var area : selectedAreas) {
+                        if (!ImageRegion.createInstance(area.getROI()).intersects(blockArea)) continue;
+                        var annotations = ResultGeometry.clipToROI(merged, area.getROI(), pathClass);
+                        TileIO.addToHierarchy(hierarchy, area, annotations);
+                        provisional.addAll(annotations);
+                    }
+                    LOGGER.debug("Committed block {} of {}, {} provisional polygon(s)",
+                            i + 1, blocks.size(), provisional.size());
+                }
+                report.record(RunReport.Stage.INSERTION, start);
+            }
+            return predicted;
+        } finally {
+            exporter.shutdownNow();
+            if (owned != null) owned.close();
+            for (var blockEnvironment : environments) {
+                Utils.clearDir(blockEnvironment.directory().roi());
+            }
+        }
+    }
+
+    /**
+     * Exports and infers the components of a job as separate jobs, each with the bounds of its own tiles.
+     * <p>
+     * Up to {@code workers} components run side by side. Each worker slot has its own scratch directories and a
+     * worker that keeps the model loaded for all components the slot infers. Components larger than a block are
+     * streamed block by block within their slot, as {@link #streamBlocks} does for a single region; the block
+     * size was planned with the disk and memory budgets shared between the slots.
+     *
+     * @return the raw predicted objects of all components
+     */
+    private static List<PathObject> inferComponents(
+            ImageData<BufferedImage> imageData,
+            List<PathObject> selectedAreas,
+            ExportConfig spec,
+            List<List<ImageRegion>> components,
+            int blockTiles,
+            int workers,
+            Path modelPath,
+            double confidence,
+            InferenceEnvironment environment,
+            RunReport report,
+            List<PathObject> provisional
+    ) throws IOException, InterruptedException {
+        var sessions = new WorkerSession[workers];
+        try {
+            return ComponentJobs.run(components, workers, (slot, component) -> {
+                var name = "component-" + slot;
+                var slotEnvironment = environment.withDirectory(environment.directory().scratch(name));
+                if (sessions[slot] == null) sessions[slot] = WorkerSession.open(slotEnvironment);
+                var bounds = TileGrid.bounds(component);
+                var blocks = TileBlocks.centerOut(component, spec, blockTiles,
+                        bounds.getX() + bounds.getWidth() / 2.0, bounds.getY() + bounds.getHeight() / 2.0);
+                if (blocks.size() > 1) {
+                    return streamBlocks(imageData, selectedAreas, spec, blocks, modelPath, confidence,
+                            environment, name, sessions[slot], report, provisional);
+                }
+                try {
+                    exportTiles(imageData, spec, component, slotEnvironment.directory(), true, report);
+                    return inferExported(slotEnvironment, sessions[slot], spec, component, modelPath, confidence,
+                            report);
+                } finally {
+                    Utils.clearDir(slotEnvironment.directory().roi());
+                }
+            });
+        } finally {
+            for (var session : sessions) {
+                if (session != null) session.close();
+            }
+        }
+    }
+
+    private static <T> T await(Future<T> job) throws IOException, InterruptedException {
+        try {
+            return job.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IOException("Background job failed", e.getCause());
+        }
+    }
+
+    /**
+     * Writes the prediction inside the ROI to the pyramid stored with the project entry of the image.
+     * If the tiles of the ROI form several components, each is written on its own with the ROI clipped to the
+     * bounds of its tiles, so the canvas never covers the gaps between fragments.
+     * Nothing is written if the image is not part of a project; failures are logged and do not fail the run.
+     */
+    private static void persistPrediction(
+            ImageData<BufferedImage> imageData,
+            ExportConfig spec,
+            Path modelPath,
+            Geometry prediction,
+            ROI roi,
+            List<List<ImageRegion>> components,
+            InferenceDirectory directory
+    ) {
+        var project = QP.getProject();
+        var entry = project == null ? null : project.getEntry(imageData);
+        if (entry == null) return;
+        var server = imageData.getServer();
+        try {
+            var storeDirectory = PredictionStore.directory(entry);
+            var canvasDirectory = directory.scratch("persist").output();
+            if (components.size() <= 1) {
+                PredictionStore.write(storeDirectory, server.getWidth(), server.getHeight(),
+                        spec.downsample(), spec.sourceMPP(), modelPath.getFileName().toString(),
+                        prediction, roi, canvasDirectory);
+                return;
+            }
+            // Invalid ROIs or predictions make plain JTS overlays throw, so clip fixed geometries robustly
+            var area = GeometryFixer.fix(roi.getGeometry());
+            var fixedPrediction = GeometryFixer.fix(prediction);
+            for (var component : components) {
+                var bounds = TileGrid.bounds(component);
+                var clip = GeometryTools.createRectangle(
+                        bounds.getX(), bounds.getY(), bounds.getWidth(), bounds.getHeight());
+                try {
+                    var componentArea = OverlayNGRobust.overlay(area, clip, OverlayNG.INTERSECTION);
+                    if (componentArea.isEmpty()) continue;
+                    PredictionStore.write(storeDirectory, server.getWidth(), server.getHeight(),
+                            spec.downsample(), spec.sourceMPP(), modelPath.getFileName().toString(),
+                            OverlayNGRobust.overlay(fixedPrediction, clip, OverlayNG.INTERSECTION),
+                            GeometryTools.geometryToROI(componentArea, roi.getImagePlane()), canvasDirectory);
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Could not store prediction fragment {} for {}", bounds, entry.getImageName(), e);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not store prediction for {}", entry.getImageName(), e);
+        }
+    }
+
+    /**
+     * Exports the tiles, runs the inference worker on them and reads the predicted polygons.
+     * The roi and output directories of the environment are cleared first, so concurrent callers
+     * need separate directories (see {@link InferenceDirectory#scratch(String)}).
+     */
+    public static List<PathObject> predictTiles(
+            ImageData<BufferedImage> imageData,
+            ExportConfig spec,
+            Collection<ImageRegion> tiles,
+            Path modelPath,
+            double confidence,
+            InferenceEnvironment environment,
+            RunReport report
+    ) throws IOException, InterruptedException {
+        exportTiles(imageData, spec, tiles, environment.directory(), false, report);
+        return inferExported(environment, spec, tiles, modelPath, confidence, report);
+    }
+
+    /**
+     * Exports the given tiles and predicts them with the long-lived worker of the session, which keeps the
+     * model loaded between calls.
+     */
+    public static List<PathObject> predictTiles(
+            ImageData<BufferedImage> imageData,
+            ExportConfig spec,
+            Collection<ImageRegion> tiles,
+            Path modelPath,
+            double confidence,
+            WorkerSession session,
+            RunReport report
+    ) throws IOException, InterruptedException {
+        var environment = session.environment();
+        exportTiles(imageData, spec, tiles, environment.directory(), false, report);
+        return inferExported(environment, session, spec, tiles, modelPath, confidence, report);
+    }
+
+    /**
+     * Clears the roi and output directories and exports the tiles into the roi directory,
+     * optionally reusing tiles staged for the selection by {@link TileStaging}.
+     */
+    private static void exportTiles(
+            ImageData<BufferedImage> imageData,
+            ExportConfig spec,
+            Collection<ImageRegion> tiles,
+            InferenceDirectory directory,
+            boolean reuseStaged,
+            RunReport report
+    ) throws IOException {
+        Utils.clearDir(directory.roi());
+        Utils.clearDir(directory.output());
 
-        var roi = QP.getSelectedROI();
-        if (roi == null) throw new IllegalStateException("No ROI selected");
+        long start = System.nanoTime();
+        var staged = reuseStaged ? TileStaging.DEFAULT.take(imageData, spec, tiles, directory.roi()) : Set.<ImageRegion>of();
+        var remaining = staged.isEmpty() ? tiles : tiles.stream().filter(t -> !staged.contains(t)).toList();
+        report.addTileCount(staged.size() + TileIO.export(imageData, spec, remaining, directory.roi(),
+                PreferenceManager.PREFETCH_REQUESTS.get()));
+        report.record(RunReport.Stage.EXPORT, start);
+        report.addProcessing(start, System.nanoTime());
+    }
+
+    /**
+     * Runs the inference worker on tiles exported by {@link #exportTiles} and reads the predicted polygons.
+     * A worker run that fails without reporting an error, for example because the watchdog stopped it, is
+     * started again on the same tiles up to {@link PreferenceManager#WORKER_RETRIES} times.
+     */
+    private static List<PathObject> inferExported(
+            InferenceEnvironment environment,
+            ExportConfig spec,
+            Collection<ImageRegion> tiles,
+            Path modelPath,
+            double confidence,
+            RunReport report
+    ) throws IOException, InterruptedException {
+        return inferExported(environment, null, spec, tiles, modelPath, confidence, report);
+    }
+
+    /**
+     * Runs inference over the exported tiles, in the session's worker if a session is given or in a new
+     * worker otherwise.
+     */
+    private static List<PathObject> inferExported(
+            InferenceEnvironment environment,
+            WorkerSession session,
+            ExportConfig spec,
+            Collection<ImageRegion> tiles,
+            Path modelPath,
+            double confidence,
+            RunReport report
+    ) throws IOException, InterruptedException {
+        int retries = Math.max(0, PreferenceManager.WORKER_RETRIES.get());
+        for (int attempt = 0; ; attempt++) {
+            long start = System.nanoTime();
+            boolean launch = session == null || !session.isRunning();
+            try {
+                var workerOutput = runInferenceScript(
+                        environment, session, modelPath, spec, confidence, tiles.size(), TileGrid.bounds(tiles));
+                long end = System.nanoTime();
+                recordWorkerStages(report, Duration.ofNanos(end - start), workerOutput);
+                report.addProcessing(start, end);
+                if (launch) report.addWorkerLaunch();
+                break;
+            } catch (WorkerFailureException e) {
+                report.record(RunReport.Stage.INFERENCE, start);
+                if (attempt >= retries) throw e;
+                report.addWorkerRetry();
+                LOGGER.warn("{}. Retrying {} tile(s), attempt {} of {}.", e.getMessage(), tiles.size(),
+                        attempt + 2, retries + 1);
+                Utils.clearDir(environment.directory().output());
+            }
+        }
 
-        var spec = exportSelectedAreaAsTiles(imageData, roi, targetMPP);
+        var polygons = environment.directory().output().resolve(POLYGONS_FILE);
+        if (!Files.exists(polygons))
+            throw new IOException("Inference finished, but output file not found: " + polygons);
 
-        int roiX = (int) Math.round(roi.getBoundsX());
-        int roiY = (int) Math.round(roi.getBoundsY());
-        int roiW = (int) Math.round(roi.getBoundsWidth());
-        int roiH = (int) Math.round(roi.getBoundsHeight());
+        start = System.nanoTime();
+        var predicted = TileIO.readGeoJson(polygons);
+        report.record(RunReport.Stage.IMPORT, start);
+        return predicted;
+    }
 
-        var script = InferenceDirectory.DEFAULT.repo().resolve(INFERENCE_SCRIPT);
-        if (!Files.isRegularFile(script))
-            throw new IOException(INFERENCE_SCRIPT + " not found at " + script);
+    /**
+     * Splits the worker wall time into process startup, model load and inference.
+     * The script reports its own runtime, and optionally model load and inference times;
+     * whatever it does not account for is attributed to process startup.
+     */
+    private static void recordWorkerStages(RunReport report, Duration wallTime, JsonObject workerOutput) {
+        if (!workerOutput.has("runtime_sec")) {
+            report.record(RunReport.Stage.INFERENCE, wallTime);
+            return;
+        }
+        var runtime = secondsToDuration(workerOutput.get("runtime_sec").getAsDouble());
+        if (runtime.compareTo(wallTime) > 0) runtime = wallTime;
 
-        return runInferenceScript(script, modelPath, spec, confidence, roiX, roiY, roiW, roiH);
+        var modelLoad = Duration.ZERO;
+        if (workerOutput.has("model_load_sec")) {
+            modelLoad = secondsToDuration(workerOutput.get("model_load_sec").getAsDouble());
+            report.record(RunReport.Stage.MODEL_LOAD, modelLoad);
+        }
+        var inference = runtime.minus(modelLoad);
+        if (workerOutput.has("inference_sec")) {
+            inference = secondsToDuration(workerOutput.get("inference_sec").getAsDouble());
+        }
+        report.record(RunReport.Stage.PROCESS_STARTUP, wallTime.minus(runtime));
+        report.record(RunReport.Stage.INFERENCE, inference.isNegative() ? Duration.ZERO : inference);
     }
 
     /**
-     * Executes the inference script with the given parameters.
+     * Executes the inference script with the given parameters under the {@link WorkerProcess} watchdog
+     * and returns its JSON output.
+     *
+     * @throws WorkerFailureException if the worker was stopped or failed without reporting an error
      */
-    private static Path runInferenceScript(
-            Path script,
+    private static JsonObject runInferenceScript(
+            InferenceEnvironment environment,
+            WorkerSession session,
             Path modelPath,
             ExportConfig spec,
             double confidence,
-            int roiX, int roiY, int roiW, int roiH
+            int tileCount,
+            ImageRegion bounds
     ) throws IOException, InterruptedException {
 
-        var repoDir = InferenceDirectory.DEFAULT.repo();
-        var tileDir = InferenceDirectory.DEFAULT.roi();
-        var outputDir = InferenceDirectory.DEFAULT.output();
-        var inferLogPath = InferenceDirectory.DEFAULT.main().resolve(INFERENCE_LOG);
+        var directory = environment.directory();
+        // A session worker configures its logging once, so it keeps writing to its own log
+        var inferLogPath = session == null ? directory.log() : session.environment().directory().log();
 
-        var pb = new ProcessBuilder(
-                UV_COMMAND, UV_RUN, script.toString(),
+        var arguments = List.of(
                 "--model-path", modelPath.toString(),
-                "--tile-dir", tileDir.toString(),
-                "--output-dir", outputDir.toString(),
-                "--roi-x", String.valueOf(roiX),
-                "--roi-y", String.valueOf(roiY),
-                "--roi-width", String.valueOf(roiW),
-                "--roi-height", String.valueOf(roiH),
+                "--tile-dir", directory.roi().toString(),
+                "--output-dir", directory.output().toString(),
+                "--roi-x", String.valueOf(bounds.getX()),
+                "--roi-y", String.valueOf(bounds.getY()),
+                "--roi-width", String.valueOf(bounds.getWidth()),
+                "--roi-height", String.valueOf(bounds.getHeight()),
                 "--downsample-rate", String.valueOf(spec.downsample()),
                 "--tile-size", String.valueOf(spec.tileSize()),
                 "--confidence", String.valueOf(confidence),
                 "--log-file", inferLogPath.toString()
         );
 
-        pb.directory(repoDir.toFile());
+        var timeouts = WorkerProcess.Timeouts.forTiles(tileCount);
         LOGGER.info("Starting inference.");
-        var proc = pb.start();
-        int exit = proc.waitFor();
+        var event = new InferenceWorkerEvent();
+        event.begin();
+        WorkerProcess.Result result = null;
+        try {
+            if (session != null) {
+                result = session.run(modelPath, arguments, inferLogPath, directory.output(), timeouts);
+            }
+            // Without a session, or if the inference script cannot serve jobs, each run is its own process
+            if (result == null) {
+                var pb = new ProcessBuilder(environment.launcher().command(arguments));
+                pb.directory(directory.repo().toFile());
+                result = WorkerProcess.run(pb, inferLogPath, directory.output(), timeouts);
+            }
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.model = modelPath.getFileName().toString();
+                event.tileCount = tileCount;
+                event.exitCode = result == null ? -1 : result.exitCode();
+                event.stopped = result == null;
+                event.commit();
+            }
+        }
 
-        String jsonOutput = new String(proc.getInputStream().readAllBytes());
-        String errorOutput = new String(proc.getErrorStream().readAllBytes());
+        int exit = result.exitCode();
+        String jsonOutput = result.stdout();
+        String errorOutput = result.stderr();
 
         if (!errorOutput.isBlank()) {
             LOGGER.warn("Inference Script Error: {}", errorOutput);
@@ -122,55 +798,90 @@ public class InferenceManager {
         // Failure Case
         if (exit != 0) {
             LOGGER.error("Inference script failed with exit code {}", exit);
-            String errorMessage = "Inference run failed. Check log file: " + inferLogPath;
 
             if (!jsonOutput.isBlank()) {
                 try {
                     JsonObject json = JsonParser.parseString(jsonOutput).getAsJsonObject();
                     if (json.has("message")) {
-                        errorMessage = json.get("message").getAsString();
+                        throw new RuntimeException(json.get("message").getAsString());
                     }
                 } catch (JsonSyntaxException | IllegalStateException e) {
                     LOGGER.warn("Could not parse error JSON.", e);
-                    errorMessage = "Inference failed with non-JSON output. Check log file.";
                 }
             }
-            Dialogs.showErrorNotification("TSEG Error", errorMessage);
-            throw new RuntimeException(errorMessage);
+            // Crashed without reporting why, e.g. killed by the system when out of memory
+            throw new WorkerFailureException("Inference run failed with exit code " + exit + ". Check log file: "
+                    + inferLogPath);
         }
 
         // Success Case
         LOGGER.info("Inference script successful.");
-        String successMessage = "Inference complete.";
         try {
-            JsonObject json = JsonParser.parseString(jsonOutput).getAsJsonObject();
-            if (json.has("runtime_sec") & json.has("n_polygons")) {
-                double runtime = json.get("runtime_sec").getAsDouble();
-                int nPolygons = json.get("n_polygons").getAsInt();
-                successMessage = String.format("Found %d polygon(s) in %.3fs.", nPolygons, runtime);
-            }
+            return JsonParser.parseString(jsonOutput).getAsJsonObject();
         } catch (JsonSyntaxException | IllegalStateException e) {
             LOGGER.warn("Could not parse success JSON", e);
+            return new JsonObject();
         }
-        Dialogs.showPlainNotification("TSEG Inference", successMessage);
+    }
 
-        var inferredPolygonsPath = outputDir.resolve(POLYGONS_FILE);
-        if (Files.exists(inferredPolygonsPath)) {
-            return inferredPolygonsPath;
-        }
-        throw new IOException("Inference finished, but output file not found: " + inferredPolygonsPath);
+    /**
+     * Converts the minimum polygon area preference from square microns to square pixels.
+     */
+    private static double minPolygonArea(ExportConfig spec) {
+        double minArea = PreferenceManager.MIN_POLYGON_AREA.get() / (spec.sourceMPP() * spec.sourceMPP());
+        return Double.isFinite(minArea) ? minArea : 0;
+    }
+
+    /**
+     * Gets the ROI covering all selected areas, or the ROI of the area itself if there is only one.
+     */
+    public static ROI unionROI(List<PathObject> selectedAreas) {
+        if (selectedAreas.size() == 1) return selectedAreas.get(0).getROI();
+        return RoiTools.union(selectedAreas.stream().map(PathObject::getROI).toList());
+    }
+
+    /**
+     * Computes the tile plan of a run on the ROI with the current tile preferences,
+     * with a run time estimated from recorded throughput.
+     */
+    public static TilePlan plan(ImageData<BufferedImage> imageData, ROI roi, double targetMPP) {
+        var server = imageData.getServer();
+        var spec = createExportConfig(imageData, roi, targetMPP);
+        var grid = TileGrid.of(spec, server.getWidth(), server.getHeight());
+        var components = TileBlocks.components(grid.tiles(), spec);
+        // Fragments run side by side, each worker slot keeping its worker for all fragments it infers
+        int launches = components.size() > 1 ? componentWorkers(components.size()) : 1;
+        return TilePlan.of(spec, grid, launches, Throughput.recorded());
+    }
+
+    /**
+     * Plans the blocks of a run over the given number of tiles within the disk and memory budgets, shared
+     * between the given number of workers running side by side.
+     */
+    private static ChunkPlan chunkPlan(ExportConfig spec, int tileCount, int blockSize, int workers) {
+        return ChunkPlan.of(spec, tileCount,
+                ((long) PreferenceManager.DISK_BUDGET.get() << 20) / workers,
+                ((long) PreferenceManager.MEMORY_BUDGET.get() << 20) / workers,
+                blockSize);
     }
 
     /**
-     * Exports the selected area as tiles according to the specifications.
+     * Gets the number of workers that infer the given number of separate fragments side by side.
      */
-    private static ExportConfig exportSelectedAreaAsTiles(
+    private static int componentWorkers(int components) {
+        return ComponentJobs.workers(PreferenceManager.COMPONENT_WORKERS.get(), components);
+    }
+
+    /**
+     * Creates the tile export specification for the ROI from the current tile preferences.
+     */
+    public static ExportConfig createExportConfig(
             ImageData<BufferedImage> imageData,
             ROI roi, double targetMPP
-    ) throws IOException {
+    ) {
         var pixelSize = imageData.getServerMetadata().getAveragedPixelSize();
 
-        var spec = new ExportConfig(
+        return new ExportConfig(
                 roi,
                 targetMPP,
                 pixelSize,
@@ -178,8 +889,9 @@ public class InferenceManager {
                 PreferenceManager.TILE_OVERLAP.getValue(),
                 "." + PreferenceManager.TILE_IMAGE_FORMAT.getValue()
         );
+    }
 
-        TileIO.export(imageData, spec, InferenceDirectory.DEFAULT.roi());
-        return spec;
+    private static Duration secondsToDuration(double seconds) {
+        return Duration.ofNanos(Math.round(seconds * 1e9));
     }
 }
@@ -0,0 +1,38 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference;
+
+import qupath.lib.objects.PathObject;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Outcome of a completed inference run.
+ */
+public record InferenceResult(List<PathObject> annotations, RunReport report) {
+
+    /**
+     * Creates the notification message for the user.
+     */
+    public String message() {
+        double seconds = report.workerTime().toNanos() / 1e9;
+        return String.format(Locale.US, "Found %d polygon(s) in %.3fs.", report.polygonCount(), seconds);
+    }
+}
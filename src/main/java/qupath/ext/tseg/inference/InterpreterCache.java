@@ -0,0 +1,145 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package qupath.ext.tseg.inference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import qupath.ext.tseg.config.PreferenceManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Python interpreter of the inference repository's uv environment, resolved once and cached.
+ * <p>
+ * {@code uv run} checks and syncs the environment every time it starts the worker. Instead, the interpreter path
+ * is resolved with {@code uv run} once and stored next to a fingerprint of the files uv builds the environment
+ * from ({@code uv.lock} and {@code pyproject.toml}), and workers are started with that interpreter directly.
+ * The interpreter is resolved again when the fingerprint changes or the interpreter is gone.
+ */
+public final class InterpreterCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InterpreterCache.class);
+    private static final String CACHE_FILE = "interpreter.properties";
+    private static final List<String> ENVIRONMENT_FILES = List.of("uv.lock", "pyproject.toml");
+    private static final String PYTHON_KEY = "python";
+    private static final String FINGERPRINT_KEY = "fingerprint";
+
+    private static String failedFingerprint;
+
+    private InterpreterCache() {
+    }
+
+    /**
+     * Gets the cached interpreter, resolving it first if the environment changed since it was cached.
+     * Returns null if it cannot be resolved; resolution is not tried again until the environment changes.
+     */
+    public static synchronized Path interpreter(InferenceDirectory directory) {
+        try {
+            var fingerprint = fingerprint(directory.repo());
+            var cached = readCache(directory);
+            if (cached != null && fingerprint.equals(cached.getProperty(FINGERPRINT_KEY))) {
+                var python = Path.of(cached.getProperty(PYTHON_KEY, ""));
+                if (Files.isRegularFile(python)) return python;
+            }
+            if (fingerprint.equals(failedFingerprint)) return null;
+            return resolve(directory, fingerprint);
+        } catch (IOException e) {
+            LOGGER.warn("Could not resolve the Python interpreter, starting workers with uv run", e);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Resolves the interpreter with {@code uv run}, which also syncs the environment, and caches it.
+     */
+    public static synchronized Path resolve(InferenceDirectory directory) throws IOException, InterruptedException {
+        return resolve(directory, fingerprint(directory.repo()));
+    }
+
+    private static Path resolve(InferenceDirectory directory, String fingerprint)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        // Until it succeeds, count the attempt as failed, so a uv run that hangs is not waited for on every run
+        failedFingerprint = fingerprint;
+        var pb = new ProcessBuilder("uv", "run", "python", "-c", "import sys; print(sys.executable)");
+        pb.directory(directory.repo().toFile());
+        var timeout = Duration.ofSeconds(Math.max(0, PreferenceManager.WORKER_STARTUP_TIMEOUT.get()));
+        var result = WorkerProcess.run(pb, new WorkerProcess.Timeouts(timeout, Duration.ZERO, Duration.ZERO));
+
+        var output = result.stdout().strip();
+        var python = output.isEmpty() ? null : Path.of(output.lines().reduce((first, last) -> last).orElseThrow().strip());
+        if (result.exitCode() != 0 || python == null || !Files.isRegularFile(python)) {
+            throw new IOException("uv run exited with code " + result.exitCode() + ": " + result.stderr().strip());
+        }
+
+        var properties = new Properties();
+        properties.setProperty(PYTHON_KEY, python.toString());
+        properties.setProperty(FINGERPRINT_KEY, fingerprint);
+        try (var out = Files.newOutputStream(directory.main().resolve(CACHE_FILE))) {
+            properties.store(out, "Python interpreter of the inference environment");
+        }
+        failedFingerprint = null;
+        LOGGER.info("Resolved Python interpreter {} in {} ms", python, (System.nanoTime() - start) / 1_000_000);
+        return python;
+    }
+
+    private static Properties readCache(InferenceDirectory directory) throws IOException {
+        var file = directory.main().resolve(CACHE_FILE);
+        if (!Files.isRegularFile(file)) return null;
+        var properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        }
+        return properties;
+    }
+
+    /**
+     * Computes the SHA-256 digest of the environment files of the repository that exist.
+     */
+    static String fingerprint(Path repo) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (var name : ENVIRONMENT_FILES) {
+            var file = repo.resolve(name);
+            if (!Files.isRegularFile(file)) continue;
+            digest.update(name.getBytes());
+            try (var in = new DigestInputStream(Files.newInputStream(file), digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,372 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import qupath.ext.tseg.config.ExportConfig;
+import qupath.ext.tseg.inference.tile.ChunkPlan;
+import qupath.ext.tseg.inference.tile.TileReadPlan;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Collects per-stage wall times and counts for a single inference run.
+ * Stage times and tile counts may be recorded from several threads.
+ */
+public final class RunReport {
+
+    /**
+     * Pipeline stages in execution order.
+     * {@link #PLANNING} covers computing the tile grid, order and read plan that export then uses; it is
+     * close to zero when the grid of a preview plan is reused (see {@link #setPlanReused}).
+     */
+    public enum Stage {
+        PLANNING("planning", "plan"),
+        EXPORT("export", "export"),
+        PROCESS_STARTUP("processStartup", "startup"),
+        MODEL_LOAD("modelLoad", "load"),
+        INFERENCE("inference", "infer"),
+        IMPORT("import", "import"),
+        SIMPLIFICATION("simplification", "simplify"),
+        INSERTION("insertion", "insert"),
+        PERSISTENCE("persistence", "save");
+
+        private final String key;
+        private final String shortName;
+
+        Stage(String key, String shortName) {
+            this.key = key;
+            this.shortName = shortName;
+        }
+
+        public String key() {
+            return key;
+        }
+    }
+
+    private final Instant startTime = Instant.now();
+    private final Map<Stage, Duration> stageTimes = new EnumMap<>(Stage.class);
+    private final String imageName;
+    private final String modelName;
+    private ExportConfig spec;
+    private int tileCount;
+    private int skippedTileCount;
+    private int polygonCount;
+    private TileReadPlan readPlan;
+    private ChunkPlan chunkPlan;
+    private int areaCount = 1;
+    private int requestedTileCount;
+    private int uniqueTileCount;
+    private int workerRetries;
+    private int workerLaunches;
+    private long processingStart = Long.MAX_VALUE;
+    private long processingEnd = Long.MIN_VALUE;
+    private boolean planReused;
+    private long vertexCount;
+    private long simplifiedVertexCount;
+    private String error;
+
+    public RunReport(String imageName, String modelName) {
+        this.imageName = imageName;
+        this.modelName = modelName;
+    }
+
+    /**
+     * Records the wall time of a stage that started at the given {@link System#nanoTime()} value.
+     */
+    public synchronized void record(Stage stage, long startNanos) {
+        record(stage, Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+
+    /**
+     * Records the wall time of a stage.
+     */
+    public synchronized void record(Stage stage, Duration duration) {
+        stageTimes.merge(stage, duration, Duration::plus);
+    }
+
+    public void setSpec(ExportConfig spec) {
+        this.spec = spec;
+    }
+
+    public synchronized void setTileCount(int tileCount) {
+        this.tileCount = tileCount;
+    }
+
+    /**
+     * Adds to the number of processed tiles, for runs that export tiles in several batches.
+     */
+    public synchronized void addTileCount(int tiles) {
+        this.tileCount += tiles;
+    }
+
+    public void setSkippedTileCount(int skippedTileCount) {
+        this.skippedTileCount = skippedTileCount;
+    }
+
+    public void setPolygonCount(int polygonCount) {
+        this.polygonCount = polygonCount;
+    }
+
+    public void setReadPlan(TileReadPlan readPlan) {
+        this.readPlan = readPlan;
+    }
+
+    public void setChunkPlan(ChunkPlan chunkPlan) {
+        this.chunkPlan = chunkPlan;
+    }
+
+    /**
+     * Sets the tile counts of a run over several areas: the tiles of all areas counted separately,
+     * and the tiles of their union that were actually planned.
+     */
+    public void setDeduplication(int areaCount, int requestedTileCount, int uniqueTileCount) {
+        this.areaCount = areaCount;
+        this.requestedTileCount = requestedTileCount;
+        this.uniqueTileCount = uniqueTileCount;
+    }
+
+    /**
+     * Marks whether the tile grid was taken from a plan computed before the run instead of being planned in it.
+     */
+    public void setPlanReused(boolean planReused) {
+        this.planReused = planReused;
+    }
+
+    /**
+     * Counts a worker run that was started again after failing.
+     */
+    public synchronized void addWorkerRetry() {
+        workerRetries++;
+    }
+
+    /**
+     * Counts a worker process that was started and finished its job.
+     */
+    public synchronized void addWorkerLaunch() {
+        workerLaunches++;
+    }
+
+    /**
+     * Extends the wall-clock span in which tiles were exported and inferred to cover the interval between the
+     * given {@link System#nanoTime()} values.
+     */
+    public synchronized void addProcessing(long startNanos, long endNanos) {
+        processingStart = Math.min(processingStart, startNanos);
+        processingEnd = Math.max(processingEnd, endNanos);
+    }
+
+    /**
+     * Sets the total number of polygon vertices before and after simplification.
+     */
+    public void setVertexCounts(long vertexCount, long simplifiedVertexCount) {
+        this.vertexCount = vertexCount;
+        this.simplifiedVertexCount = simplifiedVertexCount;
+    }
+
+    /**
+     * Marks the run as failed with the given message.
+     */
+    public void setError(String error) {
+        this.error = error == null ? "Unknown error" : error;
+    }
+
+    public synchronized Map<Stage, Duration> stageTimes() {
+        return Map.copyOf(stageTimes);
+    }
+
+    public String modelName() {
+        return modelName;
+    }
+
+    public synchronized int tileCount() {
+        return tileCount;
+    }
+
+    public int skippedTileCount() {
+        return skippedTileCount;
+    }
+
+    public int polygonCount() {
+        return polygonCount;
+    }
+
+    public synchronized int workerRetries() {
+        return workerRetries;
+    }
+
+    public synchronized int workerLaunches() {
+        return workerLaunches;
+    }
+
+    public int areaCount() {
+        return areaCount;
+    }
+
+    public int requestedTileCount() {
+        return requestedTileCount;
+    }
+
+    /**
+     * Gets the ratio of tiles the areas would need on their own to the tiles planned for their union,
+     * or 1 for runs over a single area.
+     */
+    public double deduplicationRatio() {
+        return uniqueTileCount == 0 ? 1 : (double) requestedTileCount / uniqueTileCount;
+    }
+
+    public long vertexCount() {
+        return vertexCount;
+    }
+
+    public long simplifiedVertexCount() {
+        return simplifiedVertexCount;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * Gets the time spent in the inference worker (startup, model load and inference).
+     */
+    public synchronized Duration workerTime() {
+        return stageTimes.getOrDefault(Stage.PROCESS_STARTUP, Duration.ZERO)
+                .plus(stageTimes.getOrDefault(Stage.MODEL_LOAD, Duration.ZERO))
+                .plus(stageTimes.getOrDefault(Stage.INFERENCE, Duration.ZERO));
+    }
+
+    /**
+     * Gets the wall-clock time from the start of the first tile export to the end of the last worker run.
+     * Streamed and concurrent runs export, infer and merge at the same time, so it is shorter than the sum of
+     * those stage times.
+     */
+    public synchronized Duration processingTime() {
+        return processingEnd < processingStart ? Duration.ZERO : Duration.ofNanos(processingEnd - processingStart);
+    }
+
+    /**
+     * Gets the summed wall time of all stages.
+     */
+    public synchronized Duration totalTime() {
+        return stageTimes.values().stream().reduce(Duration.ZERO, Duration::plus);
+    }
+
+    /**
+     * Creates a compact one-line breakdown of the stage times.
+     */
+    public synchronized String summary() {
+        var joiner = new StringJoiner(" · ");
+        if (areaCount > 1) {
+            joiner.add(String.format(Locale.US, "%d areas, dedup %.2fx", areaCount, deduplicationRatio()));
+        }
+        stageTimes.forEach((stage, time) -> joiner.add(
+                String.format(Locale.US, "%s %.2fs", stage.shortName, seconds(time))));
+        if (workerRetries > 0) joiner.add(workerRetries + " worker retr" + (workerRetries == 1 ? "y" : "ies"));
+        return joiner.toString();
+    }
+
+    /**
+     * Converts the report to JSON.
+     */
+    public synchronized JsonObject toJson() {
+        var json = new JsonObject();
+        json.addProperty("timestamp", startTime.toString());
+        json.addProperty("status", error == null ? "success" : "failed");
+        if (error != null) json.addProperty("error", error);
+        json.addProperty("image", imageName);
+        json.addProperty("model", modelName);
+
+        if (spec != null) {
+            var roi = new JsonObject();
+            roi.addProperty("x", spec.roi().getBoundsX());
+            roi.addProperty("y", spec.roi().getBoundsY());
+            roi.addProperty("width", spec.roi().getBoundsWidth());
+            roi.addProperty("height", spec.roi().getBoundsHeight());
+            json.add("roi", roi);
+            json.addProperty("downsample", spec.downsample());
+            json.addProperty("tileSize", spec.tileSize());
+            json.addProperty("overlap", spec.overlapFraction());
+        }
+        json.addProperty("tiles", tileCount);
+        json.addProperty("skippedTiles", skippedTileCount);
+        json.addProperty("planReused", planReused);
+        json.addProperty("polygons", polygonCount);
+        json.addProperty("workerRetries", workerRetries);
+        json.addProperty("workerLaunches", workerLaunches);
+        if (readPlan != null) {
+            var reads = new JsonObject();
+            reads.addProperty("level", readPlan.level());
+            reads.addProperty("levelDownsample", readPlan.levelDownsample());
+            reads.addProperty("nativeTiles", readPlan.nativeTiles());
+            reads.addProperty("nativeTileRequests", readPlan.nativeTileRequests());
+            reads.addProperty("decodedBytes", readPlan.decodedBytes());
+            reads.addProperty("unplannedDecodedBytes", readPlan.unplannedDecodedBytes());
+            json.add("reads", reads);
+        }
+        if (chunkPlan != null) {
+            var footprint = new JsonObject();
+            footprint.addProperty("pixels", chunkPlan.pixels());
+            footprint.addProperty("diskBytes", chunkPlan.diskBytes());
+            footprint.addProperty("memoryBytes", chunkPlan.memoryBytes());
+            footprint.addProperty("blockTiles", chunkPlan.blockTiles());
+            footprint.addProperty("budgeted", chunkPlan.budgeted());
+            json.add("footprint", footprint);
+        }
+        if (areaCount > 1) {
+            var deduplication = new JsonObject();
+            deduplication.addProperty("areas", areaCount);
+            deduplication.addProperty("requestedTiles", requestedTileCount);
+            deduplication.addProperty("uniqueTiles", uniqueTileCount);
+            deduplication.addProperty("ratio", deduplicationRatio());
+            json.add("deduplication", deduplication);
+        }
+        var vertices = new JsonObject();
+        vertices.addProperty("predicted", vertexCount);
+        vertices.addProperty("simplified", simplifiedVertexCount);
+        json.add("vertices", vertices);
+
+        var stages = new JsonObject();
+        stageTimes.forEach((stage, time) -> stages.addProperty(stage.key(), seconds(time)));
+        json.add("stagesSec", stages);
+        json.addProperty("totalSec", seconds(totalTime()));
+        json.addProperty("processingSec", seconds(processingTime()));
+        return json;
+    }
+
+    /**
+     * Writes the report as JSON to the given file.
+     */
+    public void write(Path file) throws IOException {
+        Files.writeString(file, new GsonBuilder().setPrettyPrinting().create().toJson(toJson()));
+    }
+
+    private static double seconds(Duration duration) {
+        return duration.toNanos() / 1e9;
+    }
+}
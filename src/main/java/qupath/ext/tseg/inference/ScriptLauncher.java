@@ -0,0 +1,58 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Launches the inference script with the cached interpreter of the repository's uv environment, or through
+ * {@code uv run} if there is no cache directory or the interpreter cannot be resolved.
+ *
+ * @param directory directory set holding the interpreter cache, or null to always use {@code uv run}
+ * @param script    inference script
+ */
+record ScriptLauncher(InferenceDirectory directory, Path script) implements WorkerLauncher {
+
+    @Override
+    public List<String> command(List<String> arguments) throws IOException {
+        List<String> command = interpreter();
+        command.add(script.toString());
+        command.addAll(arguments);
+        return command;
+    }
+
+    @Override
+    public List<String> serveCommand(Path driver) throws IOException {
+        List<String> command = interpreter();
+        command.add(driver.toString());
+        command.add(script.toString());
+        return command;
+    }
+
+    private List<String> interpreter() throws IOException {
+        if (!Files.isRegularFile(script))
+            throw new IOException(script.getFileName() + " not found at " + script);
+        var python = directory == null ? null : InterpreterCache.interpreter(directory);
+        return python == null ? new ArrayList<>(List.of("uv", "run")) : new ArrayList<>(List.of(python.toString()));
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference;
+
+import org.locationtech.jts.geom.Geometry;
+import qupath.lib.objects.PathObject;
+import qupath.lib.objects.classes.PathClass;
+import qupath.lib.regions.ImageRegion;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps the tile grid and prediction of the last run per annotation,
+ * so that edits to an annotation only need inference on the tiles they add.
+ */
+public final class SegmentationCache {
+
+    public static final SegmentationCache DEFAULT = new SegmentationCache(16);
+
+    private final Map<UUID, Entry> entries;
+
+    /**
+     * Creates a cache that keeps the given number of most recently used annotations.
+     */
+    public SegmentationCache(int maxEntries) {
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Gets the entry for the annotation, or null if there is none.
+     */
+    public synchronized Entry get(PathObject annotation) {
+        return entries.get(annotation.getID());
+    }
+
+    /**
+     * Stores the entry for the annotation, replacing any previous one.
+     */
+    public synchronized void put(PathObject annotation, Entry entry) {
+        entries.put(annotation.getID(), entry);
+    }
+
+    /**
+     * Removes the entry for the annotation.
+     */
+    public synchronized void invalidate(PathObject annotation) {
+        entries.remove(annotation.getID());
+    }
+
+    /**
+     * Parameters that must match for a previous prediction to be reused.
+     * The model is identified by its absolute path, size and modification time, so a model file that was
+     * replaced, or a model of the same name in another directory, never reuses the prediction of another.
+     */
+    public record Settings(
+            String imagePath,
+            String modelPath,
+            long modelSize,
+            long modelModified,
+            double downsample,
+            int tileSize,
+            int overlapPixels,
+            double confidence
+    ) {
+
+        /**
+         * Creates the settings of a run with the given model file, reading its size and modification time.
+         */
+        public static Settings of(
+                String imagePath,
+                Path model,
+                double downsample,
+                int tileSize,
+                int overlapPixels,
+                double confidence
+        ) throws IOException {
+            var attributes = Files.readAttributes(model, BasicFileAttributes.class);
+            return new Settings(imagePath, model.toAbsolutePath().normalize().toString(), attributes.size(),
+                    attributes.lastModifiedTime().toMillis(), downsample, tileSize, overlapPixels, confidence);
+        }
+    }
+
+    /**
+     * Last run for an annotation: its tiles, the merged prediction over those tiles before simplification and
+     * clipping to the ROI, and the objects that were added to the hierarchy. Simplification is only applied
+     * when output objects are built, so repeated incremental runs do not accumulate simplification error.
+     */
+    public record Entry(
+            Settings settings,
+            Set<ImageRegion> tiles,
+            Geometry prediction,
+            PathClass pathClass,
+            List<PathObject> objects
+    ) {
+        public Entry {
+            tiles = Set.copyOf(tiles);
+            objects = List.copyOf(objects);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference;
+
+import qupath.ext.tseg.config.PreferenceManager;
+
+import java.time.Duration;
+
+/**
+ * Run time model fitted to finished runs: a fixed overhead per worker launch (process startup and model load)
+ * plus a time per tile for everything else. Each run updates an exponential moving average.
+ *
+ * @param overheadSeconds fixed time per worker launch
+ * @param secondsPerTile  time per exported and inferred tile
+ */
+public record Throughput(double overheadSeconds, double secondsPerTile) {
+
+    private static final double WEIGHT = 0.3;
+
+    /**
+     * Gets the throughput recorded from earlier runs, or null if no run has been recorded.
+     */
+    public static Throughput recorded() {
+        double overhead = PreferenceManager.LAUNCH_OVERHEAD_SECONDS.get();
+        double perTile = PreferenceManager.SECONDS_PER_TILE.get();
+        if (overhead < 0 || perTile < 0) return null;
+        return new Throughput(overhead, perTile);
+    }
+
+    /**
+     * Updates the recorded throughput with a finished run. Failed runs and runs without tiles are ignored.
+     * The startup and model load times of all the run's workers are shared out over its worker launches.
+     * The time per tile is taken from the wall-clock span of export and inference, not the sum of the stage
+     * times, which counts overlapping stages of streamed and concurrent runs more than once.
+     */
+    public static synchronized void record(RunReport report) {
+        int tiles = report.tileCount();
+        if (!report.isSuccess() || tiles == 0) return;
+        var stages = report.stageTimes();
+        double startup = seconds(stages.get(RunReport.Stage.PROCESS_STARTUP))
+                + seconds(stages.get(RunReport.Stage.MODEL_LOAD));
+        double overhead = startup / Math.max(1, report.workerLaunches());
+        double perTile = Math.max(0, seconds(report.processingTime()) - startup) / tiles;
+
+        var previous = recorded();
+        if (previous != null) {
+            overhead = previous.overheadSeconds() + WEIGHT * (overhead - previous.overheadSeconds());
+            perTile = previous.secondsPerTile() + WEIGHT * (perTile - previous.secondsPerTile());
+        }
+        PreferenceManager.LAUNCH_OVERHEAD_SECONDS.set(overhead);
+        PreferenceManager.SECONDS_PER_TILE.set(perTile);
+    }
+
+    /**
+     * Estimates the time of a run over the given number of tiles that starts the given number of workers.
+     */
+    public Duration estimate(int tiles, int launches) {
+        return Duration.ofMillis(Math.round((launches * overheadSeconds + tiles * secondsPerTile) * 1000));
+    }
+
+    private static double seconds(Duration duration) {
+        return duration == null ? 0 : duration.toNanos() / 1e9;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference;
+
+import qupath.ext.tseg.config.ExportConfig;
+import qupath.ext.tseg.inference.tile.TileGrid;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Tile plan of a run, computed before it starts: the tile grid of the ROI and the estimated run time.
+ * A plan shown as a preview is handed to the run, which reuses its grid if the export specification is unchanged.
+ *
+ * @param spec          export specification the plan was computed for
+ * @param grid          tiles covering the ROI
+ * @param estimatedTime estimated run time from recorded throughput, or null if no run has been recorded
+ */
+public record TilePlan(ExportConfig spec, TileGrid grid, Duration estimatedTime) {
+
+    /**
+     * Creates the plan of a grid for a run that starts the given number of workers.
+     */
+    public static TilePlan of(ExportConfig spec, TileGrid grid, int workerLaunches, Throughput throughput) {
+        return new TilePlan(spec, grid, throughput == null ? null : throughput.estimate(grid.size(), workerLaunches));
+    }
+
+    /**
+     * Gets the number of tiles to export and infer.
+     */
+    public int tileCount() {
+        return grid.size();
+    }
+
+    /**
+     * Gets the number of grid tiles skipped because they do not intersect the ROI.
+     */
+    public int skippedTiles() {
+        return grid.skippedTiles();
+    }
+
+    /**
+     * Gets the number of tile pixels at the export resolution.
+     */
+    public long pixels() {
+        return (long) tileCount() * spec.tileSize() * spec.tileSize();
+    }
+
+    /**
+     * Checks if the plan was computed for the given specification.
+     */
+    public boolean matches(ExportConfig spec) {
+        return this.spec.equals(spec);
+    }
+
+    /**
+     * Creates a one-line summary for the interface.
+     */
+    public String summary() {
+        String base = String.format(Locale.US, "%,d tiles (%,d skipped), %.1f MP",
+                tileCount(), skippedTiles(), pixels() / 1e6);
+        if (estimatedTime == null) return base;
+        long seconds = Math.max(1, estimatedTime.toSeconds());
+        String time = seconds < 60
+                ? seconds + " s"
+                : String.format(Locale.US, "%d min %02d s", seconds / 60, seconds % 60);
+        return base + ", about " + time;
+    }
+}
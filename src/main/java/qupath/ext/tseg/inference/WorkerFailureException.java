@@ -0,0 +1,31 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package qupath.ext.tseg.inference;
+
+import java.io.IOException;
+
+/**
+ * Failure of the inference worker that the worker did not report itself: it was stopped by the watchdog,
+ * or exited with an error but without a message. Running the same tiles again may succeed.
+ */
+public class WorkerFailureException extends IOException {
+
+    public WorkerFailureException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Builds the command line that starts the inference worker.
+ */
+@FunctionalInterface
+public interface WorkerLauncher {
+
+    /**
+     * Creates the full command for the given worker arguments.
+     */
+    List<String> command(List<String> arguments) throws IOException;
+
+    /**
+     * Creates the command that starts a long-lived worker with the given driver script, which calls the
+     * inference script's entry point for each job read from standard input, or returns null if this launcher
+     * only starts single runs.
+     */
+    default List<String> serveCommand(Path driver) throws IOException {
+        return null;
+    }
+
+    /**
+     * Creates a launcher that runs the inference script through {@code uv run}.
+     */
+    static WorkerLauncher uv(Path script) {
+        return new ScriptLauncher(null, script);
+    }
+
+    /**
+     * Creates a launcher that runs the inference script with the cached interpreter of the repository's
+     * uv environment (see {@link InterpreterCache}), without the environment check of {@code uv run}.
+     * Falls back to {@code uv run} if the interpreter cannot be resolved.
+     */
+    static WorkerLauncher cachedInterpreter(InferenceDirectory directory, Path script) {
+        return new ScriptLauncher(directory, script);
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package qupath.ext.tseg.inference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import qupath.ext.tseg.config.PreferenceManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the inference worker subprocess under a watchdog.
+ * <p>
+ * Standard output and error are read on their own threads while the worker runs, so a worker writing a lot of
+ * output cannot block on a full pipe. The worker counts as alive while it writes output, its
+ * own log file grows or files are added to its output directory. It is stopped if it shows no sign of life within
+ * the startup timeout, or runs longer than the run timeout. The idle timeout only applies once the first result
+ * file was written: loading the model or a long first tile can keep a healthy worker silent for a while, which
+ * must not get it killed. Short commands without an output directory are held to the idle timeout as soon as
+ * they show output.
+ */
+final class WorkerProcess {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WorkerProcess.class);
+    private static final long POLL_MILLIS = 500;
+    private static final Duration KILL_GRACE = Duration.ofSeconds(5);
+
+    /**
+     * Watchdog limits; a zero duration disables the limit.
+     */
+    record Timeouts(Duration startup, Duration idle, Duration run) {
+
+        /**
+         * Creates the limits for a run over the given number of tiles from the current preferences.
+         * The run timeout is the startup timeout plus the time allowed per tile.
+         */
+        static Timeouts forTiles(int tileCount) {
+            var startup = Duration.ofSeconds(Math.max(0, PreferenceManager.WORKER_STARTUP_TIMEOUT.get()));
+            var idle = Duration.ofSeconds(Math.max(0, PreferenceManager.WORKER_IDLE_TIMEOUT.get()));
+            long perTile = Math.max(0, PreferenceManager.WORKER_TILE_TIMEOUT.get());
+            var run = perTile == 0 ? Duration.ZERO : startup.plusSeconds(perTile * tileCount);
+            return new Timeouts(startup, idle, run);
+        }
+    }
+
+    /**
+     * Exit code and collected output of a finished worker.
+     */
+    record Result(int exitCode, String stdout, String stderr) {
+    }
+
+    private WorkerProcess() {
+    }
+
+    /**
+     * Starts a command that has no log file or output directory and waits for it to exit.
+     *
+     * @throws WorkerFailureException if the command was stopped by the watchdog
+     */
+    static Result run(ProcessBuilder builder, Timeouts timeouts) throws IOException, InterruptedException {
+        return run(builder, null, null, timeouts);
+    }
+
+    /**
+     * Starts the worker and waits for it to exit.
+     * If a limit is exceeded or the calling thread is interrupted, the worker is killed with all its
+     * child processes.
+     *
+     * @param logFile   log file written by this worker only, or null
+     * @param outputDir directory the worker writes its results to, or null
+     * @throws WorkerFailureException if the worker was stopped by the watchdog
+     */
+    static Result run(ProcessBuilder builder, Path logFile, Path outputDir, Timeouts timeouts)
+            throws IOException, InterruptedException {
+        // Created before the start, so output written before the first poll still counts as a sign of life
+        var watchdog = new Watchdog(timeouts, logFile, outputDir, 0, false);
+        var process = builder.start();
+        var stdout = new OutputReader(process.getInputStream(), "tseg-worker-stdout");
+        var stderr = new OutputReader(process.getErrorStream(), "tseg-worker-stderr");
+        boolean exited = false;
+        try {
+            while (!process.waitFor(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                var failure = watchdog.check(stdout.bytes() + stderr.bytes());
+                if (failure != null) {
+                    LOGGER.warn("{}, stopping it", failure);
+                    throw new WorkerFailureException(failure);
+                }
+            }
+            exited = true;
+        } finally {
+            if (!exited) destroyTree(process);
+            stdout.await();
+            stderr.await();
+        }
+        return new Result(process.exitValue(), stdout.text(), stderr.text());
+    }
+
+    /**
+     * Applies the timeouts to one run of the worker from the signs of life seen since it was created.
+     */
+    static final class Watchdog {
+
+        private final Timeouts timeouts;
+        private final Path logFile;
+        private final Path outputDir;
+        private final long results;
+        private final long start;
+        private final boolean loaded;
+        private long activity;
+        private long lastActivity;
+        private boolean started;
+        private boolean producing;
+
+        /**
+         * @param logFile   log file written by the worker, or null
+         * @param outputDir directory the worker writes the results of this run to, or null
+         * @param output    number of bytes or lines the worker has written to its output streams so far
+         * @param loaded    whether the worker has already loaded the model, so the idle timeout applies as soon
+         *                  as it shows a sign of life instead of after its first result
+         */
+        Watchdog(Timeouts timeouts, Path logFile, Path outputDir, long output, boolean loaded) {
+            this.timeouts = timeouts;
+            this.logFile = logFile;
+            this.outputDir = outputDir;
+            this.loaded = loaded;
+            activity = activity(logFile, outputDir) + output;
+            results = modified(outputDir);
+            start = System.nanoTime();
+            lastActivity = start;
+        }
+
+        /**
+         * Records the current state of the worker and returns the reason once a limit is exceeded, or null.
+         *
+         * @param output number of bytes or lines the worker has written to its output streams so far
+         */
+        String check(long output) {
+            long now = System.nanoTime();
+            long current = activity(logFile, outputDir) + output;
+            if (current != activity) {
+                activity = current;
+                lastActivity = now;
+                started = true;
+            }
+            producing |= outputDir == null || loaded ? started : modified(outputDir) != results;
+            if (!started && exceeded(timeouts.startup(), now - start))
+                return "Inference worker showed no sign of life within " + timeouts.startup().toSeconds() + " s";
+            if (producing && exceeded(timeouts.idle(), now - lastActivity))
+                return "Inference worker made no progress for " + timeouts.idle().toSeconds() + " s";
+            if (exceeded(timeouts.run(), now - start))
+                return "Inference worker did not finish within " + timeouts.run().toSeconds() + " s";
+            return null;
+        }
+    }
+
+    private static boolean exceeded(Duration limit, long elapsedNanos) {
+        return !limit.isZero() && elapsedNanos > limit.toNanos();
+    }
+
+    /**
+     * Sums log file size and output directory modification time. Both only grow while the worker makes
+     * progress, so, with the output the worker wrote, any change of the sum is a sign of life.
+     */
+    private static long activity(Path logFile, Path outputDir) {
+        long activity = 0;
+        try {
+            if (logFile != null && Files.exists(logFile)) activity += Files.size(logFile);
+        } catch (IOException e) {
+            LOGGER.debug("Could not check worker activity", e);
+        }
+        return activity + modified(outputDir);
+    }
+
+    /**
+     * Gets the modification time of the output directory, which changes when the worker adds a result file.
+     */
+    private static long modified(Path outputDir) {
+        if (outputDir == null) return 0;
+        try {
+            return Files.getLastModifiedTime(outputDir).toMillis();
+        } catch (IOException e) {
+            LOGGER.debug("Could not check worker output", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Kills the worker and its descendants. {@code uv run} starts the Python interpreter as a child process,
+     * which would keep running, and holding the GPU, if only uv was killed.
+     */
+    static void destroyTree(Process process) {
+        var descendants = process.descendants().toList();
+        descendants.forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+        try {
+            if (!process.waitFor(KILL_GRACE.toMillis(), TimeUnit.MILLISECONDS))
+                LOGGER.warn("Inference worker {} did not exit after being killed", process.pid());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Collects a worker output stream on a daemon thread.
+     */
+    private static final class OutputReader {
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private final AtomicLong bytes = new AtomicLong();
+        private final Thread thread;
+
+        OutputReader(InputStream in, String name) {
+            thread = new Thread(() -> {
+                byte[] chunk = new byte[8192];
+                try (in) {
+                    int n;
+                    while ((n = in.read(chunk)) >= 0) {
+                        synchronized (buffer) {
+                            buffer.write(chunk, 0, n);
+                        }
+                        bytes.addAndGet(n);
+                    }
+                } catch (IOException e) {
+                    LOGGER.debug("Stopped reading worker output", e);
+                }
+            }, name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        long bytes() {
+            return bytes.get();
+        }
+
+        String text() {
+            synchronized (buffer) {
+                return buffer.toString();
+            }
+        }
+
+        /**
+         * Waits for the stream to be read to its end; a grandchild process that survived may keep it open,
+         * so the wait is bounded.
+         */
+        void await() {
+            try {
+                thread.join(KILL_GRACE.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps one inference worker running across many small jobs.
+ * <p>
+ * The worker runs a driver script that imports the inference script and calls its load-once/infer-many entry
+ * point, {@code load(model_path)} and {@code infer(model, argv)}, for each job it reads from standard input.
+ * The model stays loaded until a job names another model file, so only the first job pays for process startup
+ * and model load. If the inference script does not define the entry point, {@link #run} returns null and the
+ * caller starts one process per job instead. Each job is watched with the same startup, idle and run timeouts as a single
+ * {@link WorkerProcess} run, counting the worker's standard error, log file and output directory as signs of
+ * life. Once the worker has the model loaded, a job that goes silent is stopped after the idle timeout without
+ * waiting for a first result. A job that fails or exceeds a limit stops the worker with its child processes;
+ * the next job starts a new one.
+ */
+public final class WorkerSession implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WorkerSession.class);
+    private static final String DRIVER_RESOURCE = "/qupath/ext/tseg/worker/tseg_serve.py";
+    private static final String DRIVER_FILE = "tseg_serve.py";
+    private static final long POLL_MILLIS = 500;
+    private static final long READER_GRACE_MILLIS = 5000;
+
+    private final InferenceEnvironment environment;
+    private final Path driver;
+    private Process process;
+    private Writer jobs;
+    private BlockingQueue<String> replies;
+    private Thread replyReader;
+    private final StringBuilder errors = new StringBuilder();
+    private final AtomicLong errorBytes = new AtomicLong();
+    private boolean unsupported;
+
+    private WorkerSession(InferenceEnvironment environment, Path driver) {
+        this.environment = environment;
+        this.driver = driver;
+    }
+
+    /**
+     * Creates a session for the environment, or returns null if its launcher only starts single runs.
+     * The worker itself starts with the first job.
+     */
+    public static WorkerSession open(InferenceEnvironment environment) throws IOException {
+        var driver = extractDriver(environment.directory().main());
+        if (environment.launcher().serveCommand(driver) == null) return null;
+        return new WorkerSession(environment, driver);
+    }
+
+    /**
+     * Gets the environment the worker runs in.
+     */
+    public InferenceEnvironment environment() {
+        return environment;
+    }
+
+    /**
+     * Checks if the worker is running, so the next job does not start a new one.
+     */
+    synchronized boolean isRunning() {
+        return process != null && process.isAlive();
+    }
+
+    /**
+     * Runs the inference script with the given model and arguments in the worker, starting the worker if needed.
+     *
+     * @param logFile   log file written by the worker, or null
+     * @param outputDir directory the job writes its results to, or null
+     * @return the result, or null if the inference script has no load-once/infer-many entry point
+     * @throws WorkerFailureException if the worker exited or exceeded a limit
+     */
+    synchronized WorkerProcess.Result run(
+            Path model,
+            List<String> arguments,
+            Path logFile,
+            Path outputDir,
+            WorkerProcess.Timeouts timeouts
+    ) throws IOException, InterruptedException {
+        if (unsupported) return null;
+        boolean done = false;
+        try {
+            // Created before a new worker starts, so its startup counts against the startup timeout
+            boolean loaded = process != null && process.isAlive();
+            var watchdog = new WorkerProcess.Watchdog(timeouts, logFile, outputDir, errorBytes.get(), loaded);
+            if (!loaded) {
+                start();
+                var error = parseReady(awaitReply(watchdog));
+                if (error != null) {
+                    LOGGER.info("Inference worker cannot serve jobs ({}), starting one process per job", error);
+                    unsupported = true;
+                    return null;
+                }
+            }
+            var args = new JsonArray();
+            arguments.forEach(args::add);
+            var job = new JsonObject();
+            job.addProperty("model", model.toString());
+            job.add("args", args);
+            try {
+                jobs.write(job + "\n");
+                jobs.flush();
+            } catch (IOException e) {
+                throw new WorkerFailureException("Inference worker stopped accepting jobs");
+            }
+            var result = parseReply(awaitReply(watchdog));
+            done = true;
+            return result;
+        } finally {
+            if (!done) stop();
+        }
+    }
+
+    private String awaitReply(WorkerProcess.Watchdog watchdog) throws IOException, InterruptedException {
+        while (true) {
+            var line = replies.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            if (line == null && !process.isAlive()) {
+                // The worker may have replied just before exiting
+                replyReader.join(READER_GRACE_MILLIS);
+                line = replies.poll();
+                if (line == null)
+                    throw new WorkerFailureException("Inference worker exited with code " + process.exitValue()
+                            + ". Check log file: " + environment.directory().log());
+            }
+            if (line != null) return line;
+            var failure = watchdog.check(errorBytes.get());
+            if (failure != null) {
+                LOGGER.warn("{}, stopping it", failure);
+                throw new WorkerFailureException(failure);
+            }
+        }
+    }
+
+    /**
+     * Reads the first line of a new worker and returns null if it is ready for jobs, or the reason it is not.
+     */
+    private static String parseReady(String line) throws WorkerFailureException {
+        try {
+            var reply = JsonParser.parseString(line).getAsJsonObject();
+            if (reply.get("ready").getAsBoolean()) return null;
+            return reply.has("error") ? reply.get("error").getAsString() : "not ready";
+        } catch (JsonSyntaxException | IllegalStateException | NullPointerException | UnsupportedOperationException e) {
+            throw new WorkerFailureException("Unexpected reply from inference worker: " + line);
+        }
+    }
+
+    private WorkerProcess.Result parseReply(String line) throws WorkerFailureException {
+        String stderr;
+        synchronized (errors) {
+            stderr = errors.toString();
+            errors.setLength(0);
+        }
+        try {
+            var reply = JsonParser.parseString(line).getAsJsonObject();
+            return new WorkerProcess.Result(reply.get("exit").getAsInt(), reply.get("stdout").getAsString(), stderr);
+        } catch (JsonSyntaxException | IllegalStateException | NullPointerException | UnsupportedOperationException e) {
+            throw new WorkerFailureException("Unexpected reply from inference worker: " + line);
+        }
+    }
+
+    private void start() throws IOException {
+        var builder = new ProcessBuilder(environment.launcher().serveCommand(driver));
+        builder.directory(environment.directory().repo().toFile());
+        process = builder.start();
+        jobs = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+        var queue = new LinkedBlockingQueue<String>();
+        replies = queue;
+        replyReader = daemon(() -> {
+            try (var reader = reader(process.getInputStream())) {
+                String line;
+                while ((line = reader.readLine()) != null) queue.add(line);
+            } catch (IOException e) {
+                LOGGER.debug("Stopped reading worker replies", e);
+            }
+        }, "tseg-session-stdout");
+        var stderr = process.getErrorStream();
+        daemon(() -> {
+            try (var reader = reader(stderr)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    synchronized (errors) {
+                        errors.append(line).append('\n');
+                    }
+                    errorBytes.addAndGet(line.length() + 1);
+                }
+            } catch (IOException e) {
+                LOGGER.debug("Stopped reading worker errors", e);
+            }
+        }, "tseg-session-stderr");
+        LOGGER.info("Started inference worker {}", process.pid());
+    }
+
+    private static BufferedReader reader(InputStream in) {
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    private static Thread daemon(Runnable task, String name) {
+        var thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private void stop() {
+        if (process == null) return;
+        WorkerProcess.destroyTree(process);
+        process = null;
+        synchronized (errors) {
+            errors.setLength(0);
+        }
+    }
+
+    /**
+     * Stops the worker with all its child processes.
+     */
+    @Override
+    public synchronized void close() {
+        stop();
+    }
+
+    /**
+     * Writes the driver script into the directory unless an identical file is already there.
+     */
+    private static Path extractDriver(Path directory) throws IOException {
+        var file = directory.resolve(DRIVER_FILE);
+        try (InputStream in = WorkerSession.class.getResourceAsStream(DRIVER_RESOURCE)) {
+            if (in == null) throw new IOException(DRIVER_RESOURCE + " not found");
+            byte[] script = in.readAllBytes();
+            if (Files.isRegularFile(file) && Arrays.equals(Files.readAllBytes(file), script)) return file;
+            Files.createDirectories(directory);
+            Files.write(file, script);
+            return file;
+        }
+    }
+}
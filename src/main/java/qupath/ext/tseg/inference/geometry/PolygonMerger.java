@@ -0,0 +1,124 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference.geometry;
+
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.geom.util.GeometryFixer;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.locationtech.jts.operation.union.UnaryUnionOp;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Merges per-tile prediction polygons into clean result polygons.
+ * <p>
+ * Invalid rings are fixed, polygons are grouped into connected components of overlapping or touching
+ * neighbours using an STRtree, and each group is unioned on its own. Groups are independent, so fixing,
+ * neighbour search and unions run in parallel on a fork/join pool, and the cost stays close to linear
+ * instead of one global union over all polygons.
+ */
+public final class PolygonMerger {
+
+    /**
+     * Merges the geometries on the common pool.
+     */
+    public static List<Polygon> merge(Collection<Geometry> geometries, double minArea) {
+        return merge(geometries, minArea, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Merges the geometries and returns the resulting polygons with at least the given area.
+     */
+    public static List<Polygon> merge(Collection<Geometry> geometries, double minArea, ForkJoinPool pool) {
+        List<Geometry> input = List.copyOf(geometries);
+        return pool.submit(() -> {
+            List<Geometry> valid = input.parallelStream()
+                    .map(PolygonMerger::fix)
+                    .filter(g -> !g.isEmpty())
+                    .toList();
+            return unionGroups(valid).parallelStream()
+                    .map(PolygonMerger::fix)
+                    .flatMap(g -> ResultGeometry.polygons(g).stream())
+                    .filter(p -> p.getArea() >= minArea)
+                    .toList();
+        }).join();
+    }
+
+    /**
+     * Unions each connected group of intersecting geometries.
+     */
+    private static List<Geometry> unionGroups(List<Geometry> geometries) {
+        int n = geometries.size();
+        var tree = new STRtree();
+        for (int i = 0; i < n; i++) {
+            tree.insert(geometries.get(i).getEnvelopeInternal(), i);
+        }
+        tree.build();
+
+        // Neighbour search is read-only on the tree, so it can run in parallel
+        List<int[]> pairs = IntStream.range(0, n).parallel()
+                .mapToObj(i -> {
+                    var prepared = PreparedGeometryFactory.prepare(geometries.get(i));
+                    List<int[]> neighbours = new ArrayList<>();
+                    for (Object candidate : tree.query(geometries.get(i).getEnvelopeInternal())) {
+                        int j = (Integer) candidate;
+                        if (j > i && prepared.intersects(geometries.get(j)))
+                            neighbours.add(new int[]{i, j});
+                    }
+                    return neighbours;
+                })
+                .flatMap(List::stream)
+                .toList();
+
+        int[] parent = IntStream.range(0, n).toArray();
+        for (int[] pair : pairs) {
+            int a = find(parent, pair[0]);
+            int b = find(parent, pair[1]);
+            if (a != b) parent[Math.max(a, b)] = Math.min(a, b);
+        }
+
+        Map<Integer, List<Geometry>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            groups.computeIfAbsent(find(parent, i), k -> new ArrayList<>()).add(geometries.get(i));
+        }
+        return groups.values().parallelStream()
+                .map(group -> group.size() == 1 ? group.get(0) : UnaryUnionOp.union(group))
+                .toList();
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static Geometry fix(Geometry geometry) {
+        return geometry.isValid() ? geometry : GeometryFixer.fix(geometry);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference.geometry;
+
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.geom.util.PolygonExtracter;
+import org.locationtech.jts.operation.union.UnaryUnionOp;
+import org.locationtech.jts.simplify.TopologyPreservingSimplifier;
+import qupath.lib.objects.PathObject;
+import qupath.lib.objects.PathObjects;
+import qupath.lib.objects.classes.PathClass;
+import qupath.lib.regions.ImageRegion;
+import qupath.lib.roi.GeometryTools;
+import qupath.lib.roi.interfaces.ROI;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Geometry operations for turning predicted polygons into result annotations.
+ */
+public final class ResultGeometry {
+
+    /**
+     * Gets the geometries of the objects that have a ROI.
+     */
+    public static List<Geometry> geometries(Collection<? extends PathObject> objects) {
+        return objects.stream()
+                .filter(PathObject::hasROI)
+                .map(o -> o.getROI().getGeometry())
+                .toList();
+    }
+
+    /**
+     * Combines disjoint polygons into a single geometry without an overlay operation.
+     */
+    public static Geometry combine(Collection<? extends Geometry> polygons) {
+        return GeometryTools.getDefaultFactory().buildGeometry(polygons);
+    }
+
+    /**
+     * Extracts the polygons of the geometry.
+     */
+    public static List<Polygon> polygons(Geometry geometry) {
+        List<Polygon> polygons = new ArrayList<>();
+        for (Object polygon : PolygonExtracter.getPolygons(geometry)) {
+            polygons.add((Polygon) polygon);
+        }
+        return polygons;
+    }
+
+    /**
+     * Simplifies the polygons with the given tolerance (full resolution pixels) while preserving topology,
+     * so that neighbouring polygons do not start to overlap and holes stay inside their shells.
+     * A tolerance of 0 returns the polygons unchanged.
+     */
+    public static List<Polygon> simplify(Collection<Polygon> polygons, double tolerance) {
+        if (tolerance <= 0 || polygons.isEmpty()) return List.copyOf(polygons);
+        return polygons(TopologyPreservingSimplifier.simplify(combine(polygons), tolerance));
+    }
+
+    /**
+     * Counts the vertices of the geometries.
+     */
+    public static long vertexCount(Collection<? extends Geometry> geometries) {
+        return geometries.stream().mapToLong(Geometry::getNumPoints).sum();
+    }
+
+    /**
+     * Unions the footprints of the tiles into a single geometry.
+     */
+    public static Geometry tileArea(Collection<ImageRegion> tiles) {
+        List<Geometry> rectangles = tiles.stream()
+                .map(t -> GeometryTools.createRectangle(t.getX(), t.getY(), t.getWidth(), t.getHeight()))
+                .toList();
+        return UnaryUnionOp.union(rectangles, GeometryTools.getDefaultFactory());
+    }
+
+    /**
+     * Clips the polygons to the ROI and creates annotations from them. Polygons inside the ROI are
+     * converted as they are, only polygons crossing its border are intersected with it.
+     */
+    public static List<PathObject> clipToROI(Collection<? extends Geometry> polygons, ROI roi, PathClass pathClass) {
+        var preparedROI = PreparedGeometryFactory.prepare(roi.getGeometry());
+        List<PathObject> clipped = new ArrayList<>(polygons.size());
+        for (Geometry polygon : polygons) {
+            if (preparedROI.covers(polygon)) {
+                var polygonROI = GeometryTools.geometryToROI(polygon, roi.getImagePlane());
+                clipped.add(PathObjects.createAnnotationObject(polygonROI, pathClass));
+            } else if (preparedROI.intersects(polygon)) {
+                clipped.addAll(toAnnotations(polygon, roi, pathClass));
+            }
+        }
+        return clipped;
+    }
+
+    /**
+     * Creates one annotation per polygon of the geometry after clipping it to the ROI.
+     */
+    public static List<PathObject> toAnnotations(Geometry geometry, ROI roi, PathClass pathClass) {
+        var clipped = geometry.intersection(roi.getGeometry());
+        List<PathObject> annotations = new ArrayList<>();
+        for (Object polygon : PolygonExtracter.getPolygons(clipped)) {
+            var polygonROI = GeometryTools.geometryToROI((Geometry) polygon, roi.getImagePlane());
+            annotations.add(PathObjects.createAnnotationObject(polygonROI, pathClass));
+        }
+        return annotations;
+    }
+}
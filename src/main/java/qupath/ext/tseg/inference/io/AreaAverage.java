@@ -0,0 +1,139 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference.io;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Area-average downsampling of RGB images by arbitrary (non-integer) factors.
+ * <p>
+ * Each output pixel is the mean of the source pixels it covers, weighted by the covered fraction of pixels
+ * at its borders. The filter is separable, so it runs as a horizontal and a vertical pass.
+ * <p>
+ * An instance keeps its scratch buffers and weights between calls, so resampling images of recurring sizes
+ * into pooled targets does not allocate. Instances are not thread-safe.
+ */
+public final class AreaAverage {
+
+    private int[] row = new int[0];
+    private float[] rows = new float[0];
+    private Weights xWeights;
+    private Weights yWeights;
+
+    /**
+     * Resamples the image to the given size. The result is of type {@link BufferedImage#TYPE_INT_RGB}.
+     */
+    public static BufferedImage resample(BufferedImage source, int width, int height) {
+        var output = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        new AreaAverage().resample(source, output);
+        return output;
+    }
+
+    /**
+     * Resamples the image to the size of the target, which must be of type {@link BufferedImage#TYPE_INT_RGB}.
+     */
+    public void resample(BufferedImage source, BufferedImage target) {
+        int srcWidth = source.getWidth();
+        int srcHeight = source.getHeight();
+        int width = target.getWidth();
+        int height = target.getHeight();
+        int[] result = Rasters.intPixels(target);
+        if (result == null) throw new IllegalArgumentException("Target must be a TYPE_INT_RGB image");
+
+        if (row.length < srcWidth) row = new int[srcWidth];
+        if (rows.length < srcHeight * width * 3) rows = new float[srcHeight * width * 3];
+        if (xWeights == null || !xWeights.matches(srcWidth, width)) xWeights = Weights.of(srcWidth, width);
+        if (yWeights == null || !yWeights.matches(srcHeight, height)) yWeights = Weights.of(srcHeight, height);
+
+        // Horizontal pass: srcHeight rows of width pixels, 3 float channels each
+        for (int y = 0; y < srcHeight; y++) {
+            Rasters.readRow(source, y, row);
+            for (int x = 0; x < width; x++) {
+                float r = 0, g = 0, b = 0;
+                for (int k = xWeights.start[x]; k < xWeights.end[x]; k++) {
+                    float w = xWeights.weight(x, k);
+                    int rgb = row[k];
+                    r += w * ((rgb >> 16) & 0xff);
+                    g += w * ((rgb >> 8) & 0xff);
+                    b += w * (rgb & 0xff);
+                }
+                int i = (y * width + x) * 3;
+                rows[i] = r;
+                rows[i + 1] = g;
+                rows[i + 2] = b;
+            }
+        }
+
+        // Vertical pass, straight into the target's data buffer
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                float r = 0, g = 0, b = 0;
+                for (int k = yWeights.start[y]; k < yWeights.end[y]; k++) {
+                    float w = yWeights.weight(y, k);
+                    int i = (k * width + x) * 3;
+                    r += w * rows[i];
+                    g += w * rows[i + 1];
+                    b += w * rows[i + 2];
+                }
+                result[y * width + x] = clamp(r) << 16 | clamp(g) << 8 | clamp(b);
+            }
+        }
+    }
+
+    private static int clamp(float value) {
+        return Math.min(255, Math.max(0, Math.round(value)));
+    }
+
+    /**
+     * Source pixel ranges and coverage weights of each output pixel along one axis.
+     * Weights are normalized per output pixel, so pixels at a clipped image border are not darkened.
+     */
+    private record Weights(int sourceSize, int targetSize, int[] start, int[] end, float[][] weights) {
+
+        static Weights of(int sourceSize, int targetSize) {
+            double scale = (double) sourceSize / targetSize;
+            int[] start = new int[targetSize];
+            int[] end = new int[targetSize];
+            float[][] weights = new float[targetSize][];
+            for (int i = 0; i < targetSize; i++) {
+                start[i] = Math.min(sourceSize - 1, (int) Math.floor(i * scale));
+                end[i] = Math.max(start[i] + 1, Math.min(sourceSize, (int) Math.ceil((i + 1) * scale)));
+                weights[i] = new float[end[i] - start[i]];
+                double sum = 0;
+                for (int k = start[i]; k < end[i]; k++) {
+                    double overlap = Math.min(k + 1, (i + 1) * scale) - Math.max(k, i * scale);
+                    weights[i][k - start[i]] = (float) Math.max(0, overlap);
+                    sum += weights[i][k - start[i]];
+                }
+                for (int k = 0; k < weights[i].length; k++) {
+                    weights[i][k] = sum > 0 ? (float) (weights[i][k] / sum) : 1f / weights[i].length;
+                }
+            }
+            return new Weights(sourceSize, targetSize, start, end, weights);
+        }
+
+        boolean matches(int sourceSize, int targetSize) {
+            return this.sourceSize == sourceSize && this.targetSize == targetSize;
+        }
+
+        float weight(int i, int k) {
+            return weights[i][k - start[i]];
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference.io;
+
+import qupath.lib.images.servers.AbstractTileableImageServer;
+import qupath.lib.images.servers.ImageChannel;
+import qupath.lib.images.servers.ImageServerBuilder.ServerBuilder;
+import qupath.lib.images.servers.ImageServerMetadata;
+import qupath.lib.images.servers.PixelType;
+import qupath.lib.images.servers.TileRequest;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Single channel 8-bit image server reading a {@link PredictionStore} pyramid tile by tile.
+ * <p>
+ * The server is at the model resolution, so its coordinates are full resolution image coordinates
+ * divided by {@link #getPredictionDownsample()}. Tiles are only read when requested, and missing tiles are empty.
+ */
+public class PredictionImageServer extends AbstractTileableImageServer {
+
+    private final Path directory;
+    private final PredictionStore.Metadata prediction;
+    private final ImageServerMetadata metadata;
+
+    private PredictionImageServer(Path directory, PredictionStore.Metadata prediction) {
+        this.directory = directory;
+        this.prediction = prediction;
+        this.metadata = new ImageServerMetadata.Builder()
+                .width(prediction.width())
+                .height(prediction.height())
+                .name("TSEG prediction")
+                .rgb(false)
+                .pixelType(PixelType.UINT8)
+                .channels(List.of(ImageChannel.getInstance("Prediction", Color.RED.getRGB())))
+                .pixelSizeMicrons(prediction.pixelSize(), prediction.pixelSize())
+                .preferredTileSize(prediction.tileSize(), prediction.tileSize())
+                .levelsFromDownsamples(prediction.levelDownsamples())
+                .build();
+    }
+
+    /**
+     * Opens the prediction stored in the directory, or returns {@code null} if there is none.
+     */
+    public static PredictionImageServer open(Path directory) throws IOException {
+        var prediction = PredictionStore.readMetadata(directory);
+        return prediction == null ? null : new PredictionImageServer(directory, prediction);
+    }
+
+    /**
+     * Gets the downsample of the model resolution relative to the full resolution image.
+     */
+    public double getPredictionDownsample() {
+        return prediction.downsample();
+    }
+
+    @Override
+    protected BufferedImage readTile(TileRequest tileRequest) throws IOException {
+        var file = PredictionStore.tileFile(directory, tileRequest.getLevel(), tileRequest.getTileX(), tileRequest.getTileY());
+        if (!Files.exists(file)) {
+            return new BufferedImage(tileRequest.getTileWidth(), tileRequest.getTileHeight(), BufferedImage.TYPE_BYTE_GRAY);
+        }
+        return ImageIO.read(file.toFile());
+    }
+
+    @Override
+    protected ServerBuilder<BufferedImage> createServerBuilder() {
+        return null;
+    }
+
+    @Override
+    protected String createID() {
+        return "tseg-prediction:" + directory.toUri();
+    }
+
+    @Override
+    public Collection<URI> getURIs() {
+        return List.of(directory.toUri());
+    }
+
+    @Override
+    public String getServerType() {
+        return "TSEG prediction";
+    }
+
+    @Override
+    public ImageServerMetadata getOriginalMetadata() {
+        return metadata;
+    }
+}
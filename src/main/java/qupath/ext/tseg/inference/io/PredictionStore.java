@@ -0,0 +1,329 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference.io;
+
+import com.google.gson.Gson;
+import org.locationtech.jts.awt.ShapeWriter;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.index.strtree.STRtree;
+import qupath.ext.tseg.inference.geometry.ResultGeometry;
+import qupath.lib.projects.ProjectImageEntry;
+import qupath.lib.roi.interfaces.ROI;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Stores predictions of an image as an 8-bit tiled pyramid of PNG files in the project entry directory.
+ * <p>
+ * Level 0 is at the model resolution and each further level is 4x coarser. The worker only reports polygons,
+ * so level 0 holds the prediction mask (0 or 255); coarser levels hold the covered fraction of each pixel
+ * scaled to 0-255. All levels are computed from one off-heap level 0 canvas of the ROI, so heap usage does not
+ * grow with the ROI. Tiles without any prediction are not written. Each run only
+ * rewrites the tiles that intersect its ROI, so results of several annotations accumulate in one pyramid.
+ */
+public final class PredictionStore {
+
+    public static final int TILE_SIZE = 512;
+    private static final String DIRECTORY = "tseg-prediction";
+    private static final String METADATA_FILE = "prediction.json";
+    private static final Gson GSON = new Gson();
+
+    /**
+     * Largest level 0 canvas kept in direct buffers; larger canvases are mapped from a scratch file.
+     */
+    public static final long DIRECT_CANVAS_BYTES = 64L << 20;
+
+    private static final byte LABEL_OUTSIDE = 0;
+    private static final byte LABEL_ROI = 1;
+    private static final byte LABEL_PREDICTED = 2;
+    private static final Color ROI_COLOR = new Color(128, 128, 128);
+    private static final Color PREDICTED_COLOR = Color.WHITE;
+    private static final IndexColorModel LABEL_COLORS = new IndexColorModel(8, 3,
+            new byte[]{0, (byte) 128, (byte) 255},
+            new byte[]{0, (byte) 128, (byte) 255},
+            new byte[]{0, (byte) 128, (byte) 255});
+
+    /**
+     * Stored pyramid description. Width and height are at level 0, i.e. the model resolution.
+     */
+    public record Metadata(
+            int width,
+            int height,
+            double downsample,
+            double pixelSize,
+            int tileSize,
+            double[] levelDownsamples,
+            String model
+    ) {
+    }
+
+    /**
+     * Gets the prediction directory of the project entry.
+     */
+    public static Path directory(ProjectImageEntry<?> entry) throws IOException {
+        return entry.getEntryPath().resolve(DIRECTORY);
+    }
+
+    /**
+     * Reads the metadata of the stored prediction, or returns {@code null} if there is none.
+     */
+    public static Metadata readMetadata(Path directory) throws IOException {
+        var file = directory.resolve(METADATA_FILE);
+        if (!Files.exists(file)) return null;
+        return GSON.fromJson(Files.readString(file), Metadata.class);
+    }
+
+    /**
+     * Gets the file of a tile, with x and y in pixel coordinates of the level.
+     */
+    public static Path tileFile(Path directory, int level, int x, int y) {
+        return directory.resolve(String.format(Locale.US, "level-%d/%d_%d.png", level, x, y));
+    }
+
+    /**
+     * Writes the prediction (full resolution coordinates) inside the ROI to the pyramid.
+     * A pyramid written at another resolution or for another image size is replaced.
+     * <p>
+     * The ROI is first rendered at level 0 into a {@link ProbabilityCanvas}, labelling each pixel as outside the
+     * ROI, inside it, or predicted; the canvas is mapped from its own file in {@code scratchDirectory} when it is
+     * larger than {@link #DIRECT_CANVAS_BYTES}. Every level is then computed from the canvas: a pixel covering {@code n}
+     * level 0 pixels, {@code r} of them inside the ROI and {@code p} predicted, becomes
+     * {@code (old * (n - r) + 255 * p) / n}, so values outside the ROI are kept.
+     *
+     * @param scratchDirectory directory for the files of mapped canvases, or {@code null} to always use direct
+     *                         buffers
+     */
+    public static void write(
+            Path directory,
+            int imageWidth,
+            int imageHeight,
+            double downsample,
+            double pixelSize,
+            String model,
+            Geometry prediction,
+            ROI roi,
+            Path scratchDirectory
+    ) throws IOException {
+        var metadata = readMetadata(directory);
+        int width = (int) Math.ceil(imageWidth / downsample);
+        int height = (int) Math.ceil(imageHeight / downsample);
+        if (metadata == null || metadata.downsample() != downsample
+                || metadata.width() != width || metadata.height() != height) {
+            deleteDirectory(directory);
+            Files.createDirectories(directory);
+            metadata = new Metadata(width, height, downsample, pixelSize * downsample, TILE_SIZE,
+                    levelDownsamples(width, height), model);
+        } else {
+            metadata = new Metadata(width, height, downsample, metadata.pixelSize(), TILE_SIZE,
+                    metadata.levelDownsamples(), model);
+        }
+
+        // Level 0 bounds of the ROI, aligned to tiles
+        int minX = Math.max(0, (int) Math.floor(roi.getBoundsX() / downsample) / TILE_SIZE * TILE_SIZE);
+        int minY = Math.max(0, (int) Math.floor(roi.getBoundsY() / downsample) / TILE_SIZE * TILE_SIZE);
+        int maxX = Math.min(width, (int) Math.ceil((roi.getBoundsX() + roi.getBoundsWidth()) / downsample));
+        int maxY = Math.min(height, (int) Math.ceil((roi.getBoundsY() + roi.getBoundsHeight()) / downsample));
+        if (maxX > minX && maxY > minY) {
+            try (var canvas = createCanvas(scratchDirectory, minX, minY, maxX - minX, maxY - minY)) {
+                renderLabels(canvas, prediction, roi, downsample);
+                for (int level = 0; level < metadata.levelDownsamples().length; level++) {
+                    writeLevel(directory, level, (int) metadata.levelDownsamples()[level], width, height, canvas);
+                }
+            }
+        }
+        Files.writeString(directory.resolve(METADATA_FILE), GSON.toJson(metadata));
+    }
+
+    private static ProbabilityCanvas createCanvas(Path scratchDirectory, int x, int y, int width, int height)
+            throws IOException {
+        if (scratchDirectory == null || ProbabilityCanvas.bytes(width, height) <= DIRECT_CANVAS_BYTES) {
+            return ProbabilityCanvas.allocate(x, y, width, height);
+        }
+        return ProbabilityCanvas.map(scratchDirectory, x, y, width, height);
+    }
+
+    /**
+     * Renders the ROI and the prediction into the canvas tile by tile, as {@link #LABEL_ROI} and
+     * {@link #LABEL_PREDICTED} on {@link #LABEL_OUTSIDE}.
+     */
+    private static void renderLabels(ProbabilityCanvas canvas, Geometry prediction, ROI roi, double downsample) {
+        var index = new STRtree();
+        for (Polygon polygon : ResultGeometry.polygons(prediction)) {
+            index.insert(polygon.getEnvelopeInternal(), polygon);
+        }
+        var roiShape = roi.getShape();
+        var shapeWriter = new ShapeWriter();
+        var labels = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_BYTE_INDEXED, LABEL_COLORS);
+        byte[] pixels = ((DataBufferByte) labels.getRaster().getDataBuffer()).getData();
+
+        int canvasMaxX = canvas.getX() + canvas.getWidth();
+        int canvasMaxY = canvas.getY() + canvas.getHeight();
+        for (int y = canvas.getY(); y < canvasMaxY; y += TILE_SIZE) {
+            for (int x = canvas.getX(); x < canvasMaxX; x += TILE_SIZE) {
+                int w = Math.min(TILE_SIZE, canvasMaxX - x);
+                int h = Math.min(TILE_SIZE, canvasMaxY - y);
+                var envelope = new Envelope(
+                        x * downsample, (x + w) * downsample, y * downsample, (y + h) * downsample);
+                Arrays.fill(pixels, LABEL_OUTSIDE);
+                var g = labels.createGraphics();
+                g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+                g.scale(1.0 / downsample, 1.0 / downsample);
+                g.translate(-x * downsample, -y * downsample);
+                g.clip(roiShape);
+                g.setColor(ROI_COLOR);
+                g.fill(roiShape);
+                g.setColor(PREDICTED_COLOR);
+                for (Object polygon : index.query(envelope)) {
+                    g.fill(shapeWriter.toShape((Polygon) polygon));
+                }
+                g.dispose();
+                for (int row = 0; row < h; row++) {
+                    canvas.writeRow(x, y + row, pixels, row * TILE_SIZE, w);
+                }
+            }
+        }
+    }
+
+    /**
+     * Updates the tiles of a level that overlap the canvas. Tiles without any prediction are only written
+     * if they already exist, to clear earlier predictions inside the ROI.
+     */
+    private static void writeLevel(
+            Path directory,
+            int level,
+            int factor,
+            int width,
+            int height,
+            ProbabilityCanvas canvas
+    ) throws IOException {
+        int shift = Integer.numberOfTrailingZeros(factor);
+        int levelWidth = (width + factor - 1) / factor;
+        int levelHeight = (height + factor - 1) / factor;
+        int canvasMaxX = canvas.getX() + canvas.getWidth();
+        int canvasMaxY = canvas.getY() + canvas.getHeight();
+        int minX = (canvas.getX() >> shift) / TILE_SIZE * TILE_SIZE;
+        int minY = (canvas.getY() >> shift) / TILE_SIZE * TILE_SIZE;
+        int maxX = Math.min(levelWidth, (canvasMaxX + factor - 1) >> shift);
+        int maxY = Math.min(levelHeight, (canvasMaxY + factor - 1) >> shift);
+
+        int[] inRoi = new int[TILE_SIZE * TILE_SIZE];
+        int[] predicted = new int[TILE_SIZE * TILE_SIZE];
+        byte[] row = new byte[canvas.getWidth()];
+        for (int y = minY; y < maxY; y += TILE_SIZE) {
+            for (int x = minX; x < maxX; x += TILE_SIZE) {
+                int w = Math.min(TILE_SIZE, levelWidth - x);
+                int h = Math.min(TILE_SIZE, levelHeight - y);
+
+                // Count ROI and predicted level 0 pixels under each pixel of the tile
+                Arrays.fill(inRoi, 0, w * h, 0);
+                Arrays.fill(predicted, 0, w * h, 0);
+                int fx0 = Math.max(canvas.getX(), x << shift);
+                int fx1 = Math.min(canvasMaxX, (x + w) << shift);
+                int fy0 = Math.max(canvas.getY(), y << shift);
+                int fy1 = Math.min(canvasMaxY, (y + h) << shift);
+                boolean anyRoi = false;
+                boolean anyPredicted = false;
+                for (int fy = fy0; fy < fy1; fy++) {
+                    canvas.readRow(fx0, fy, row, 0, fx1 - fx0);
+                    int rowOffset = ((fy >> shift) - y) * w - x;
+                    for (int fx = fx0; fx < fx1; fx++) {
+                        byte label = row[fx - fx0];
+                        if (label == LABEL_OUTSIDE) continue;
+                        int i = rowOffset + (fx >> shift);
+                        inRoi[i]++;
+                        anyRoi = true;
+                        if (label == LABEL_PREDICTED) {
+                            predicted[i]++;
+                            anyPredicted = true;
+                        }
+                    }
+                }
+
+                var file = tileFile(directory, level, x, y);
+                boolean exists = Files.exists(file);
+                if (!anyRoi || (!anyPredicted && !exists)) continue;
+
+                var tile = exists ? toGray(ImageIO.read(file.toFile())) : new BufferedImage(w, h, BufferedImage.TYPE_BYTE_GRAY);
+                byte[] values = ((DataBufferByte) tile.getRaster().getDataBuffer()).getData();
+                for (int ty = 0; ty < h; ty++) {
+                    int ny = Math.min(factor, height - ((y + ty) << shift));
+                    for (int tx = 0; tx < w; tx++) {
+                        int i = ty * w + tx;
+                        if (inRoi[i] == 0) continue;
+                        int n = Math.min(factor, width - ((x + tx) << shift)) * ny;
+                        int old = values[i] & 0xff;
+                        values[i] = (byte) Math.round((old * (n - inRoi[i]) + 255.0 * predicted[i]) / n);
+                    }
+                }
+                Files.createDirectories(file.getParent());
+                ImageIO.write(tile, "png", file.toFile());
+            }
+        }
+    }
+
+    private static BufferedImage toGray(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_BYTE_GRAY
+                && image.getRaster().getDataBuffer() instanceof DataBufferByte
+                && image.getRaster().getSampleModelTranslateX() == 0
+                && image.getRaster().getSampleModelTranslateY() == 0) {
+            return image;
+        }
+        var gray = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+        gray.getRaster().setRect(image.getRaster());
+        return gray;
+    }
+
+    /**
+     * Calculates 4x level downsamples until a level fits into a single tile.
+     */
+    private static double[] levelDownsamples(int width, int height) {
+        List<Double> downsamples = new ArrayList<>();
+        double downsample = 1;
+        downsamples.add(downsample);
+        while (Math.max(width, height) / downsample > TILE_SIZE) {
+            downsample *= 4;
+            downsamples.add(downsample);
+        }
+        return downsamples.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        if (!Files.exists(directory)) return;
+        try (var paths = Files.walk(directory)) {
+            for (var path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Off-heap canvas of 8-bit values (probabilities scaled to 0-255, or labels) covering a region of an image,
+ * for stitching results of very large ROIs without holding them on the heap.
+ * <p>
+ * The canvas is stored in square tiles of {@link #TILE_SIZE} pixels, so a tile is contiguous and a row of tiles
+ * is one buffer. Buffers are either direct buffers or mapped from a file, typically in a job's scratch directory,
+ * in which case only the pages written to are backed by memory or disk. Heap usage does not depend on the size.
+ * Each mapped canvas has its own file. Mapped pages are only released by the garbage collector, so
+ * {@link #close()} deletes the file on a best-effort basis: where a mapped file cannot be deleted (Windows),
+ * it is left for the next canvas in the directory, or for the end of the JVM, to remove.
+ * Instances are not thread-safe.
+ */
+public final class ProbabilityCanvas implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProbabilityCanvas.class);
+    private static final String FILE_PREFIX = "canvas-";
+    private static final String FILE_SUFFIX = ".bin";
+
+    public static final int TILE_SIZE = 512;
+    private static final long TILE_BYTES = (long) TILE_SIZE * TILE_SIZE;
+
+    private final int x;
+    private final int y;
+    private final int width;
+    private final int height;
+    private final int tilesX;
+    private final ByteBuffer[] bands;
+    private final FileChannel channel;
+    private final Path file;
+
+    private ProbabilityCanvas(int x, int y, int width, int height, FileChannel channel, Path file) throws IOException {
+        if (width <= 0 || height <= 0) throw new IllegalArgumentException("Empty canvas: " + width + "x" + height);
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.tilesX = (width + TILE_SIZE - 1) / TILE_SIZE;
+        long bandBytes = tilesX * TILE_BYTES;
+        if (bandBytes > Integer.MAX_VALUE) throw new IllegalArgumentException("Canvas too wide: " + width);
+        this.bands = new ByteBuffer[(height + TILE_SIZE - 1) / TILE_SIZE];
+        this.channel = channel;
+        this.file = file;
+        for (int band = 0; band < bands.length; band++) {
+            bands[band] = channel == null
+                    ? ByteBuffer.allocateDirect((int) bandBytes)
+                    : channel.map(FileChannel.MapMode.READ_WRITE, band * bandBytes, bandBytes);
+        }
+    }
+
+    /**
+     * Creates a canvas in direct buffers, with all values 0.
+     * The region is given by its origin and size in pixels of the image.
+     */
+    public static ProbabilityCanvas allocate(int x, int y, int width, int height) throws IOException {
+        return new ProbabilityCanvas(x, y, width, height, null, null);
+    }
+
+    /**
+     * Creates a canvas mapped from a new file in the directory, with all values 0. Canvas files left behind by
+     * earlier canvases are removed where possible; the new file is deleted when the canvas is closed.
+     */
+    public static ProbabilityCanvas map(Path directory, int x, int y, int width, int height) throws IOException {
+        Files.createDirectories(directory);
+        deleteStale(directory);
+        var file = Files.createTempFile(directory, FILE_PREFIX, FILE_SUFFIX);
+        var channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new ProbabilityCanvas(x, y, width, height, channel, file);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            delete(file);
+            throw e;
+        }
+    }
+
+    /**
+     * Calculates the number of bytes a canvas of the given size occupies.
+     */
+    public static long bytes(int width, int height) {
+        return (long) ((width + TILE_SIZE - 1) / TILE_SIZE) * ((height + TILE_SIZE - 1) / TILE_SIZE) * TILE_BYTES;
+    }
+
+    /**
+     * Writes a run of values starting at the given image pixel. The run must lie within the canvas.
+     */
+    public void writeRow(int px, int py, byte[] values, int offset, int length) {
+        checkRun(px, py, length);
+        int cx = px - x;
+        int cy = py - y;
+        while (length > 0) {
+            int run = Math.min(length, TILE_SIZE - cx % TILE_SIZE);
+            bands[cy / TILE_SIZE].put(index(cx, cy), values, offset, run);
+            cx += run;
+            offset += run;
+            length -= run;
+        }
+    }
+
+    /**
+     * Reads a run of values starting at the given image pixel. The run must lie within the canvas.
+     */
+    public void readRow(int px, int py, byte[] values, int offset, int length) {
+        checkRun(px, py, length);
+        int cx = px - x;
+        int cy = py - y;
+        while (length > 0) {
+            int run = Math.min(length, TILE_SIZE - cx % TILE_SIZE);
+            bands[cy / TILE_SIZE].get(index(cx, cy), values, offset, run);
+            cx += run;
+            offset += run;
+            length -= run;
+        }
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel == null) return;
+        channel.close();
+        delete(file);
+    }
+
+    /**
+     * Deletes a canvas file, or schedules it for deletion at exit if it is still mapped.
+     */
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.debug("Could not delete canvas file {} yet", file, e);
+            file.toFile().deleteOnExit();
+        }
+    }
+
+    private static void deleteStale(Path directory) {
+        try (var files = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (var file : files) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    LOGGER.debug("Canvas file {} is still in use", file, e);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Could not list canvas files in {}", directory, e);
+        }
+    }
+
+    private int index(int cx, int cy) {
+        return (int) ((cx / TILE_SIZE) * TILE_BYTES) + (cy % TILE_SIZE) * TILE_SIZE + cx % TILE_SIZE;
+    }
+
+    private void checkRun(int px, int py, int length) {
+        if (px < x || py < y || py >= y + height || length < 0 || px + length > x + width) {
+            throw new IndexOutOfBoundsException(String.format("Run of %d at (%d, %d) outside canvas %dx%d at (%d, %d)",
+                    length, px, py, width, height, x, y));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference.io;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounded pool of {@link BufferedImage#TYPE_INT_RGB} images, so tiles and strips of recurring sizes reuse
+ * their rasters instead of allocating new ones for every tile.
+ * <p>
+ * Only images acquired from a pool may be released to it, and a released image must no longer be used.
+ * Images are kept per size in a short list, since a tile grid only has a few distinct tile sizes (full tiles
+ * and those clipped at the image border), so acquiring and releasing do not allocate once the pool is warm.
+ * Instances are thread-safe.
+ */
+public final class RasterPool {
+
+    private final int capacity;
+    private final List<Bucket> buckets = new ArrayList<>();
+    private int size;
+
+    /**
+     * Creates a pool that keeps up to the given number of released images.
+     */
+    public RasterPool(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Gets an image of the given size, reusing a released one if available.
+     * The content of a reused image is undefined.
+     */
+    public BufferedImage acquire(int width, int height) {
+        synchronized (this) {
+            var bucket = find(width, height);
+            if (bucket != null && !bucket.images().isEmpty()) {
+                size--;
+                return bucket.images().pop();
+            }
+        }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    /**
+     * Returns an image acquired from this pool, dropping it if the pool is full.
+     */
+    public synchronized void release(BufferedImage image) {
+        if (image == null || size >= capacity) return;
+        var bucket = find(image.getWidth(), image.getHeight());
+        if (bucket == null) {
+            bucket = new Bucket(image.getWidth(), image.getHeight(), new ArrayDeque<>());
+            buckets.add(bucket);
+        }
+        bucket.images().push(image);
+        size++;
+    }
+
+    private Bucket find(int width, int height) {
+        for (int i = 0; i < buckets.size(); i++) {
+            var bucket = buckets.get(i);
+            if (bucket.width() == width && bucket.height() == height) return bucket;
+        }
+        return null;
+    }
+
+    private record Bucket(int width, int height, ArrayDeque<BufferedImage> images) {
+    }
+}
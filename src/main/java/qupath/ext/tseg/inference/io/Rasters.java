@@ -0,0 +1,93 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference.io;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+
+/**
+ * Direct access to the pixel arrays of common RGB image types, avoiding per-pixel {@code getRGB} calls.
+ * Only images that own their whole data buffer (not sub-images) are accessed directly.
+ */
+final class Rasters {
+
+    private Rasters() {
+    }
+
+    /**
+     * Gets the packed pixel array of an {@link BufferedImage#TYPE_INT_RGB} or {@link BufferedImage#TYPE_INT_ARGB}
+     * image, or null if the image has another type or layout.
+     */
+    static int[] intPixels(BufferedImage image) {
+        int type = image.getType();
+        if (type != BufferedImage.TYPE_INT_RGB && type != BufferedImage.TYPE_INT_ARGB) return null;
+        var raster = image.getRaster();
+        if (!(raster.getDataBuffer() instanceof DataBufferInt buffer)
+                || !(raster.getSampleModel() instanceof SinglePixelPackedSampleModel sampleModel)
+                || !isUnshifted(image) || buffer.getOffset() != 0
+                || sampleModel.getScanlineStride() != image.getWidth()) return null;
+        return buffer.getData();
+    }
+
+    /**
+     * Gets the interleaved pixel array of a {@link BufferedImage#TYPE_3BYTE_BGR} or
+     * {@link BufferedImage#TYPE_4BYTE_ABGR} image, or null if the image has another type or layout.
+     */
+    static byte[] bytePixels(BufferedImage image) {
+        int type = image.getType();
+        if (type != BufferedImage.TYPE_3BYTE_BGR && type != BufferedImage.TYPE_4BYTE_ABGR) return null;
+        var raster = image.getRaster();
+        if (!(raster.getDataBuffer() instanceof DataBufferByte buffer)
+                || !(raster.getSampleModel() instanceof ComponentSampleModel sampleModel)
+                || !isUnshifted(image) || buffer.getOffset() != 0
+                || sampleModel.getScanlineStride() != image.getWidth() * sampleModel.getPixelStride()) return null;
+        return buffer.getData();
+    }
+
+    /**
+     * Reads a row of packed RGB values into the array, directly from the data buffer where possible.
+     */
+    static void readRow(BufferedImage image, int y, int[] row) {
+        int width = image.getWidth();
+        int[] ints = intPixels(image);
+        if (ints != null) {
+            System.arraycopy(ints, y * width, row, 0, width);
+            return;
+        }
+        byte[] bytes = bytePixels(image);
+        if (bytes != null) {
+            // Bytes are stored as B, G, R (with a leading A for 4BYTE_ABGR)
+            int pixelStride = image.getType() == BufferedImage.TYPE_4BYTE_ABGR ? 4 : 3;
+            int first = pixelStride - 3;
+            for (int x = 0, i = y * width * pixelStride + first; x < width; x++, i += pixelStride) {
+                row[x] = (bytes[i + 2] & 0xff) << 16 | (bytes[i + 1] & 0xff) << 8 | (bytes[i] & 0xff);
+            }
+            return;
+        }
+        image.getRGB(0, y, width, 1, row, 0, width);
+    }
+
+    private static boolean isUnshifted(BufferedImage image) {
+        var raster = image.getRaster();
+        return raster.getSampleModelTranslateX() == 0 && raster.getSampleModelTranslateY() == 0;
+    }
+}
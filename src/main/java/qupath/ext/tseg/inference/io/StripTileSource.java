@@ -0,0 +1,304 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference.io;
+
+import qupath.ext.tseg.config.ExportConfig;
+import qupath.ext.tseg.inference.tile.TileGrid;
+import qupath.ext.tseg.inference.tile.TileReadPlan;
+import qupath.lib.images.servers.ImageServer;
+import qupath.lib.regions.ImageRegion;
+import qupath.lib.regions.RegionRequest;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reads overlapping tiles by slicing them out of shared strips, so each image pixel is read from the server
+ * about once instead of once per tile covering it.
+ * <p>
+ * The grid is divided into bands one tile step high, and horizontally into chunks of {@link #CHUNK_TILES}
+ * tile steps plus the tile overlap. Each strip (band of a chunk) is read from the planned pyramid level,
+ * area-averaged to the tile resolution once, and kept in a small LRU cache. A tile is assembled row by row
+ * from the strips of the bands it spans, each row taking the strip row under its centre, so it is within a
+ * fraction of a pixel of a direct read even when the step is not a whole number of tile pixels. Memory is
+ * bounded by the cache capacity, a few strips of one chunk, plus the strips of tiles being read.
+ * Resampled strips and tiles are taken from a {@link RasterPool} and copied row by row between data buffers,
+ * so steady-state reads only allocate inside the server.
+ * <p>
+ * Instances are thread-safe. Tiles read in parallel share the strips they have in common, and different
+ * strips are read in parallel, so several region requests can be in flight.
+ */
+public class StripTileSource implements TileSource {
+
+    public static final int CHUNK_TILES = 16;
+
+    private static final int POOL_CAPACITY = 16;
+
+    private final ImageServer<BufferedImage> server;
+    private final ExportConfig spec;
+    private final TileReadPlan plan;
+    private final int step;
+    private final int extent;
+    private final int chunkWidth;
+    private final int capacity;
+    private final Map<Long, Strip> strips = new LinkedHashMap<>(16, 0.75f, true);
+    private final RasterPool pool = new RasterPool(POOL_CAPACITY);
+    private final Deque<AreaAverage> resamplers = new ConcurrentLinkedDeque<>();
+    private final AtomicLong stripReads = new AtomicLong();
+
+    public StripTileSource(ImageServer<BufferedImage> server, ExportConfig spec, TileReadPlan plan) {
+        this.server = server;
+        this.spec = spec;
+        this.plan = plan;
+        this.step = TileGrid.tileStep(spec);
+        this.extent = TileGrid.tileExtent(spec);
+        this.chunkWidth = step * CHUNK_TILES;
+        this.capacity = bandsPerTile() + 1;
+    }
+
+    /**
+     * Orders tiles chunk by chunk, and band by band within a chunk, so strips are used up before they are
+     * evicted. Otherwise the given order is kept: chunks come in the order their first tile is given, and
+     * tiles of one band in the order they are given.
+     */
+    @Override
+    public List<ImageRegion> order(Collection<ImageRegion> tiles) {
+        Map<Integer, Integer> chunkRanks = new HashMap<>();
+        for (var tile : tiles) chunkRanks.putIfAbsent(Math.floorDiv(tile.getX(), chunkWidth), chunkRanks.size());
+        return tiles.stream()
+                .sorted(Comparator.<ImageRegion>comparingInt(t -> chunkRanks.get(Math.floorDiv(t.getX(), chunkWidth)))
+                        .thenComparingInt(t -> Math.floorDiv(t.getY(), step)))
+                .toList();
+    }
+
+    @Override
+    public BufferedImage read(ImageRegion tile) throws IOException {
+        double downsample = spec.downsample();
+        var image = pool.acquire(
+                TileSource.scaledSize(tile.getWidth(), downsample),
+                TileSource.scaledSize(tile.getHeight(), downsample));
+        int[] pixels = Rasters.intPixels(image);
+        Arrays.fill(pixels, 0);
+        int chunk = Math.floorDiv(tile.getX(), chunkWidth);
+        int firstBand = Math.floorDiv(tile.getY(), step);
+        int lastBand = Math.floorDiv(tile.getMaxY() - 1, step);
+        int dx = (int) Math.round((chunk * (double) chunkWidth - tile.getX()) / downsample);
+        var used = acquireStrips(tile, chunk, firstBand, lastBand);
+        BufferedImage strip = null;
+        int stripBand = -1;
+        Graphics2D g = null;
+        try {
+            // Read the strips no other thread has started before waiting for any, so a tile reads its
+            // missing strips while the tiles next to it read theirs
+            for (var usedStrip : used) usedStrip.image.run();
+            for (int y = 0; y < image.getHeight(); y++) {
+                // Each tile row takes the strip row under its centre. When the step is not a whole number of
+                // tile pixels, strips are not aligned to the tile's rows, and placing whole strips at a rounded
+                // offset would shift rows by up to half a pixel and jump at strip borders.
+                double rowY = tile.getY() + (y + 0.5) * downsample;
+                int band = Math.min(lastBand, (int) Math.floor(rowY / step));
+                if (band != stripBand) {
+                    strip = used.get(band - firstBand).get();
+                    stripBand = band;
+                }
+                int stripRow = Math.min(strip.getHeight() - 1, (int) ((rowY - band * (double) step) / downsample));
+                int[] stripPixels = Rasters.intPixels(strip);
+                if (stripPixels == null && g == null) g = image.createGraphics();
+                copyRow(strip, stripPixels, stripRow, image, pixels, y, dx, g);
+            }
+        } catch (IOException | RuntimeException e) {
+            pool.release(image);
+            throw e;
+        } finally {
+            if (g != null) g.dispose();
+            releaseStrips(used);
+        }
+        return image;
+    }
+
+    @Override
+    public void release(BufferedImage image) {
+        pool.release(image);
+    }
+
+    @Override
+    public synchronized void close() {
+        strips.values().forEach(this::releaseStrip);
+        strips.clear();
+    }
+
+    /**
+     * Tiles can be read from several threads; each strip is still read only once, by the first tile that
+     * needs it, while other tiles needing it wait.
+     */
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    /**
+     * Gets the number of strips read from the server so far.
+     */
+    public long stripReads() {
+        return stripReads.get();
+    }
+
+    /**
+     * Gets the strips of the given bands of a chunk from the cache, adding those not cached yet, and marks
+     * them as in use so they are not evicted while the tile is assembled.
+     */
+    private synchronized List<Strip> acquireStrips(ImageRegion tile, int chunk, int firstBand, int lastBand) {
+        List<Strip> used = new ArrayList<>(lastBand - firstBand + 1);
+        for (int band = firstBand; band <= lastBand; band++) {
+            int stripBand = band;
+            var strip = strips.computeIfAbsent(key(chunk, band), key -> new Strip(key, tile, chunk, stripBand));
+            strip.users++;
+            used.add(strip);
+        }
+        return used;
+    }
+
+    /**
+     * Marks the strips as no longer used by a tile, drops strips that failed to read, and evicts the least
+     * recently used idle strips beyond the cache capacity. Strips in use may keep the cache above capacity.
+     */
+    private synchronized void releaseStrips(List<Strip> used) {
+        for (var strip : used) {
+            strip.users--;
+            if (strip.image.state() == Future.State.FAILED) strips.remove(strip.key, strip);
+        }
+        var iterator = strips.values().iterator();
+        while (strips.size() > capacity && iterator.hasNext()) {
+            var strip = iterator.next();
+            if (strip.users > 0) continue;
+            iterator.remove();
+            releaseStrip(strip);
+        }
+    }
+
+    private static long key(int chunk, int band) {
+        return (long) chunk << 32 | (band & 0xffffffffL);
+    }
+
+    private BufferedImage readStrip(ImageRegion tile, int chunk, int band) throws IOException {
+        int x = chunk * chunkWidth;
+        int y = band * step;
+        int width = Math.min(chunkWidth + extent - step, server.getWidth() - x);
+        int height = Math.min(step, server.getHeight() - y);
+        var region = ImageRegion.createInstance(x, y, width, height, tile.getZ(), tile.getT());
+        var image = server.readRegion(RegionRequest.createInstance(server.getPath(), plan.levelDownsample(), region));
+        stripReads.incrementAndGet();
+        if (plan.isExactLevel()) return image;
+        var strip = pool.acquire(
+                TileSource.scaledSize(width, spec.downsample()),
+                TileSource.scaledSize(height, spec.downsample()));
+        var resampler = resamplers.poll();
+        if (resampler == null) resampler = new AreaAverage();
+        try {
+            resampler.resample(image, strip);
+        } finally {
+            resamplers.push(resampler);
+        }
+        return strip;
+    }
+
+    /**
+     * Returns a resampled strip to the pool. Strips read at an exact level belong to the server and are dropped,
+     * as are strips that were never read or failed.
+     */
+    private void releaseStrip(Strip strip) {
+        if (!plan.isExactLevel() && strip.image.state() == Future.State.SUCCESS) pool.release(strip.image.resultNow());
+    }
+
+    /**
+     * Copies a strip row into a tile row at the given horizontal offset, clipped to the tile. Strips without
+     * an int raster are drawn with the given graphics of the tile.
+     */
+    private static void copyRow(
+            BufferedImage strip,
+            int[] stripPixels,
+            int stripRow,
+            BufferedImage tile,
+            int[] tilePixels,
+            int y,
+            int dx,
+            Graphics2D g
+    ) {
+        int x0 = Math.max(0, dx);
+        int x1 = Math.min(tile.getWidth(), dx + strip.getWidth());
+        if (x1 <= x0) return;
+        if (stripPixels == null) {
+            g.drawImage(strip, x0, y, x1, y + 1, x0 - dx, stripRow, x1 - dx, stripRow + 1, null);
+            return;
+        }
+        System.arraycopy(stripPixels, stripRow * strip.getWidth() + (x0 - dx), tilePixels, y * tile.getWidth() + x0, x1 - x0);
+    }
+
+    private int bandsPerTile() {
+        return (extent + step - 1) / step + 1;
+    }
+
+    /**
+     * A cached strip. It is read by the first thread that runs its task; other threads wait for the result.
+     * The use count is guarded by the source.
+     */
+    private final class Strip {
+
+        private final long key;
+        private final FutureTask<BufferedImage> image;
+        private int users;
+
+        private Strip(long key, ImageRegion tile, int chunk, int band) {
+            this.key = key;
+            this.image = new FutureTask<>(() -> readStrip(tile, chunk, band));
+        }
+
+        /**
+         * Runs the read in this thread unless another thread has started it, and waits for the strip.
+         */
+        private BufferedImage get() throws IOException {
+            image.run();
+            try {
+                return image.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while reading a strip");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException ioe) throw ioe;
+                throw new IOException("Failed to read a strip", e.getCause());
+            }
+        }
+    }
+}
@@ -19,11 +19,18 @@
 package qupath.ext.tseg.inference.io;
 
 import qupath.ext.tseg.config.ExportConfig;
+import qupath.ext.tseg.inference.tile.TileGrid;
+import qupath.ext.tseg.jfr.GeoJsonImportEvent;
+import qupath.ext.tseg.jfr.HierarchyUpdateEvent;
+import qupath.ext.tseg.jfr.TileExportEvent;
+import qupath.lib.common.GeneralTools;
 import qupath.lib.images.ImageData;
-import qupath.lib.images.writers.TileExporter;
+import qupath.lib.images.servers.ServerTools;
 import qupath.lib.io.PathIO;
 import qupath.lib.objects.PathObject;
+import qupath.lib.objects.hierarchy.PathObjectHierarchy;
 import qupath.lib.regions.ImageRegion;
+import qupath.lib.regions.RegionRequest;
 import qupath.lib.scripting.QP;
 
 import java.awt.image.BufferedImage;
@@ -31,43 +38,213 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
 
 /**
  * Utility class for tile input/output operations.
  */
 public final class TileIO {
 
-    private static final boolean ALLOW_PARTIAL_TILES = true;
-
     /**
-     * Exports image tiles according to the specification.
+     * Exports all tiles of the grid for the specification and returns the number of tiles written.
      */
-    public static void export(
+    public static int export(
             ImageData<BufferedImage> imageData,
             ExportConfig spec, Path outputDir
     ) throws IOException {
-        var region = ImageRegion.createInstance(spec.roi());
-
-        new TileExporter(imageData)
-                .downsample(spec.downsample())
-                .imageExtension(spec.imageExtension())
-                .tileSize(spec.tileSize())
-                .overlap(spec.overlapPixels())
-                .region(region)
-                .includePartialTiles(ALLOW_PARTIAL_TILES)
-                .writeTiles(outputDir.toString());
+        var server = imageData.getServer();
+        var grid = TileGrid.of(spec, server.getWidth(), server.getHeight());
+        return export(imageData, spec, grid.tiles(), outputDir);
+    }
+
+    /**
+     * Exports the given tiles (full resolution regions) at the specification's downsample
+     * and returns the number of tiles written.
+     */
+    public static int export(
+            ImageData<BufferedImage> imageData,
+            ExportConfig spec,
+            Collection<ImageRegion> tiles,
+            Path outputDir
+    ) throws IOException {
+        return export(imageData, spec, tiles, outputDir, 1);
     }
 
     /**
-     * Imports annotations from a GeoJSON file.
+     * Exports the given tiles (full resolution regions) at the specification's downsample, with up to
+     * {@code inFlight} region requests running ahead of the writer, and returns the number of tiles written.
+     */
+    public static int export(
+            ImageData<BufferedImage> imageData,
+            ExportConfig spec,
+            Collection<ImageRegion> tiles,
+            Path outputDir,
+            int inFlight
+    ) throws IOException {
+        try (var source = TileSource.create(imageData.getServer(), spec, tiles)) {
+            return export(source, imageData, spec, tiles, outputDir, inFlight);
+        }
+    }
+
+    /**
+     * Exports the given tiles, in the order preferred by the source, reading them from the source.
+     * With more than one request in flight, tiles are read ahead of the writer by a {@link TilePrefetcher}.
+     */
+    public static int export(
+            TileSource source,
+            ImageData<BufferedImage> imageData,
+            ExportConfig spec,
+            Collection<ImageRegion> tiles,
+            Path outputDir,
+            int inFlight
+    ) throws IOException {
+        var event = new TileExportEvent();
+        event.begin();
+        boolean measureBytes = event.isEnabled();
+
+        long bytesWritten = 0;
+        if (inFlight > 1) {
+            try (var prefetcher = new TilePrefetcher(source, source.order(tiles), inFlight)) {
+                while (prefetcher.hasNext()) {
+                    var tile = prefetcher.next();
+                    Path file;
+                    try {
+                        file = writeTile(imageData, spec, tile.region(), tile.image(), outputDir);
+                    } finally {
+                        // Handed back before the prefetcher releases the tiles it still holds on close
+                        source.release(tile.image());
+                    }
+                    if (measureBytes) bytesWritten += Files.size(file);
+                }
+            }
+        } else {
+            for (var tile : source.order(tiles)) {
+                var file = exportTile(source, imageData, spec, tile, outputDir);
+                if (measureBytes) bytesWritten += Files.size(file);
+            }
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            var region = ImageRegion.createInstance(spec.roi());
+            event.roiWidth = region.getWidth();
+            event.roiHeight = region.getHeight();
+            event.downsample = spec.downsample();
+            event.tileCount = tiles.size();
+            event.bytesWritten = bytesWritten;
+            event.commit();
+        }
+        return tiles.size();
+    }
+
+    /**
+     * Exports a single tile (full resolution region) read from the source and returns its file.
+     * The tile image is handed back to the source once written.
+     */
+    public static Path exportTile(
+            TileSource source,
+            ImageData<BufferedImage> imageData,
+            ExportConfig spec,
+            ImageRegion tile,
+            Path outputDir
+    ) throws IOException {
+        var image = source.read(tile);
+        try {
+            return writeTile(imageData, spec, tile, image, outputDir);
+        } finally {
+            source.release(image);
+        }
+    }
+
+    private static Path writeTile(
+            ImageData<BufferedImage> imageData,
+            ExportConfig spec,
+            ImageRegion tile,
+            BufferedImage image,
+            Path outputDir
+    ) throws IOException {
+        var file = outputDir.resolve(tileFileName(imageData, spec, tile));
+        TileWriter.write(image, file);
+        return file;
+    }
+
+    /**
+     * Gets the file name a tile is exported to.
+     */
+    public static String tileFileName(ImageData<BufferedImage> imageData, ExportConfig spec, ImageRegion tile) {
+        var server = imageData.getServer();
+        String baseName = GeneralTools.stripExtension(ServerTools.getDisplayableImageName(server));
+        var request = RegionRequest.createInstance(server.getPath(), spec.downsample(), tile);
+        return tileName(baseName, request, spec.imageExtension());
+    }
+
+    /**
+     * Creates a tile file name that encodes the full resolution region, using the same
+     * {@code [d=..,x=..,y=..,w=..,h=..]} convention as QuPath's tile exporter.
+     */
+    public static String tileName(String baseName, RegionRequest request, String extension) {
+        return String.format(Locale.US, "%s [d=%s,x=%d,y=%d,w=%d,h=%d]%s",
+                baseName,
+                GeneralTools.formatNumber(Locale.US, request.getDownsample(), 3),
+                request.getX(), request.getY(), request.getWidth(), request.getHeight(),
+                extension);
+    }
+
+    /**
+     * Imports annotations from a GeoJSON file into the current hierarchy.
      */
     public static void importGeoJson(PathObject selectedArea, Path file) throws IOException {
+        importGeoJson(QP.getCurrentHierarchy(), selectedArea, file);
+    }
+
+    /**
+     * Imports annotations from a GeoJSON file into the given hierarchy.
+     */
+    public static void importGeoJson(
+            PathObjectHierarchy hierarchy,
+            PathObject selectedArea, Path file
+    ) throws IOException {
+        addToHierarchy(hierarchy, selectedArea, readGeoJson(file));
+    }
+
+    /**
+     * Reads objects from a GeoJSON file.
+     */
+    public static List<PathObject> readGeoJson(Path file) throws IOException {
+        var event = new GeoJsonImportEvent();
+        event.begin();
         try (InputStream in = Files.newInputStream(file)) {
-            var annotations = PathIO.readObjectsFromGeoJSON(in);
-            annotations.forEach(a -> a.setLocked(true));
-            QP.addObjects(annotations);
-            selectedArea.addChildObjects(annotations);
-            selectedArea.setLocked(true);
+            var objects = PathIO.readObjectsFromGeoJSON(in);
+            event.end();
+            if (event.shouldCommit()) {
+                event.polygonCount = objects.size();
+                event.fileSize = Files.size(file);
+                event.commit();
+            }
+            return objects;
+        }
+    }
+
+    /**
+     * Adds the objects to the hierarchy as locked children of the selected area.
+     */
+    public static void addToHierarchy(
+            PathObjectHierarchy hierarchy,
+            PathObject selectedArea,
+            Collection<? extends PathObject> annotations
+    ) {
+        var event = new HierarchyUpdateEvent();
+        event.begin();
+        annotations.forEach(a -> a.setLocked(true));
+        hierarchy.addObjects(annotations);
+        selectedArea.addChildObjects(annotations);
+        selectedArea.setLocked(true);
+        event.end();
+        if (event.shouldCommit()) {
+            event.polygonCount = annotations.size();
+            event.commit();
         }
     }
 }
@@ -0,0 +1,136 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import qupath.lib.regions.ImageRegion;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads tiles ahead of a consumer with a bounded number of region requests in flight,
+ * delivering them in the given order.
+ * <p>
+ * With remote image servers each request mostly waits on the network, so keeping several requests in flight
+ * hides the round trip behind the encoding and writing of earlier tiles.
+ * Sources that are not thread-safe are read by a single thread, which still reads ahead of the consumer.
+ */
+public final class TilePrefetcher implements AutoCloseable {
+
+    /**
+     * A tile region and its image.
+     */
+    public record Tile(ImageRegion region, BufferedImage image) {
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TilePrefetcher.class);
+    private static final long CLOSE_TIMEOUT_SECONDS = 60;
+
+    private final TileSource source;
+    private final List<ImageRegion> tiles;
+    private final ExecutorService executor;
+    private final Deque<Future<BufferedImage>> pending = new ArrayDeque<>();
+    private int submitted;
+    private int delivered;
+
+    /**
+     * Starts reading the tiles, with up to {@code inFlight} requests running at a time.
+     */
+    public TilePrefetcher(TileSource source, List<ImageRegion> tiles, int inFlight) {
+        this.source = source;
+        this.tiles = List.copyOf(tiles);
+        int depth = Math.max(1, inFlight);
+        int threads = source.isThreadSafe() ? Math.min(depth, Math.max(1, this.tiles.size())) : 1;
+        executor = Executors.newFixedThreadPool(threads, r -> {
+            var thread = new Thread(r, "tseg-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        while (submitted < this.tiles.size() && pending.size() < depth) submitNext();
+    }
+
+    /**
+     * Checks if there are tiles left to deliver.
+     */
+    public boolean hasNext() {
+        return delivered < tiles.size();
+    }
+
+    /**
+     * Waits for the next tile in order and requests another one in its place.
+     */
+    public Tile next() throws IOException {
+        if (!hasNext()) throw new NoSuchElementException();
+        var region = tiles.get(delivered++);
+        var future = pending.removeFirst();
+        if (submitted < tiles.size()) submitNext();
+        try {
+            return new Tile(region, future.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading " + region);
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            if (cause instanceof IOException ioe) throw ioe;
+            throw new IOException("Failed to read " + region, cause);
+        }
+    }
+
+    private void submitNext() {
+        var region = tiles.get(submitted++);
+        pending.addLast(executor.submit(() -> source.read(region)));
+    }
+
+    /**
+     * Cancels the requests that have not started and waits for those in flight, handing their tiles back to
+     * the source. Running reads are not interrupted, as an interrupt can leave a server or a shared strip of
+     * the source in a broken state.
+     */
+    @Override
+    public void close() {
+        pending.forEach(f -> f.cancel(false));
+        executor.shutdown();
+        // Closing after an interrupted read still waits for the reads in flight
+        boolean interrupted = Thread.interrupted();
+        try {
+            if (!executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+                LOGGER.warn("Tile reads still running after {} s", CLOSE_TIMEOUT_SECONDS);
+        } catch (InterruptedException e) {
+            interrupted = true;
+        } finally {
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+        for (var future : pending) {
+            if (future.state() == Future.State.SUCCESS) source.release(future.resultNow());
+        }
+        pending.clear();
+    }
+}
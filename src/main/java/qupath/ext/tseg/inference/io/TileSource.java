@@ -0,0 +1,90 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference.io;
+
+import qupath.ext.tseg.config.ExportConfig;
+import qupath.ext.tseg.inference.tile.TileReadPlan;
+import qupath.lib.images.servers.ImageServer;
+import qupath.lib.regions.ImageRegion;
+import qupath.lib.regions.RegionRequest;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reads tile images (full resolution regions) at the downsample of an export specification.
+ */
+public interface TileSource extends AutoCloseable {
+
+    /**
+     * Reads the tile at the specification's downsample.
+     */
+    BufferedImage read(ImageRegion tile) throws IOException;
+
+    /**
+     * Orders the tiles in the sequence this source reads them most efficiently.
+     */
+    default List<ImageRegion> order(Collection<ImageRegion> tiles) {
+        return List.copyOf(tiles);
+    }
+
+    /**
+     * Hands back a tile image read from this source once it has been written, so its raster can be reused.
+     * The image must not be used afterwards.
+     */
+    default void release(BufferedImage image) {
+    }
+
+    /**
+     * Checks if tiles can be read from several threads at once.
+     */
+    default boolean isThreadSafe() {
+        return true;
+    }
+
+    @Override
+    default void close() throws IOException {
+    }
+
+    /**
+     * Creates the default source for reading the tiles from the server.
+     * RGB images are read in shared strips from the nearest pyramid level at or above the tile resolution and
+     * area-averaged to the target size; other images are read through the server at the target downsample.
+     */
+    static TileSource create(ImageServer<BufferedImage> server, ExportConfig spec, Collection<ImageRegion> tiles) {
+        if (!server.isRGB()) return direct(server, spec);
+        return new StripTileSource(server, spec, TileReadPlan.of(server, spec, tiles));
+    }
+
+    /**
+     * Creates a source that reads every tile with a single region request at the specification's downsample.
+     */
+    static TileSource direct(ImageServer<BufferedImage> server, ExportConfig spec) {
+        return tile -> server.readRegion(RegionRequest.createInstance(server.getPath(), spec.downsample(), tile));
+    }
+
+    /**
+     * Calculates the size of a tile at the given downsample, in the same way as QuPath's region requests.
+     */
+    static int scaledSize(int size, double downsample) {
+        return (int) Math.max(1, Math.round(size / downsample));
+    }
+}
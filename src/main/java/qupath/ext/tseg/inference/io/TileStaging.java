@@ -0,0 +1,221 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference.io;
+
+import javafx.beans.value.ChangeListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import qupath.ext.tseg.config.ExportConfig;
+import qupath.ext.tseg.config.PreferenceManager;
+import qupath.ext.tseg.inference.InferenceDirectory;
+import qupath.ext.tseg.inference.InferenceManager;
+import qupath.ext.tseg.inference.tile.TileGrid;
+import qupath.ext.tseg.util.Utils;
+import qupath.lib.gui.QuPathGUI;
+import qupath.lib.images.ImageData;
+import qupath.lib.objects.PathObject;
+import qupath.lib.objects.hierarchy.events.PathObjectSelectionListener;
+import qupath.lib.regions.ImageRegion;
+import qupath.lib.roi.interfaces.ROI;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Speculatively exports the tiles of the selected annotation while the user is still setting up the run.
+ * <p>
+ * When enabled in the preferences, selecting a single annotation starts exporting its tiles into a staging
+ * directory on a low priority background thread. A new selection cancels the previous job. When the run
+ * starts, tiles that were already staged for the same image and export settings are moved into the tile
+ * directory instead of being exported again.
+ */
+public final class TileStaging {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TileStaging.class);
+
+    public static final TileStaging DEFAULT = new TileStaging();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        var thread = new Thread(r, "tseg-staging");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    // Bound to the image whose selection model it listens to, so events never use another image's data
+    private PathObjectSelectionListener selectionListener;
+    private final ChangeListener<ImageData<BufferedImage>> imageDataListener = (obs, oldValue, newValue) -> {
+        if (oldValue != null && selectionListener != null)
+            oldValue.getHierarchy().getSelectionModel().removePathObjectSelectionListener(selectionListener);
+        selectionListener = null;
+        if (newValue != null) {
+            selectionListener = (selected, previous, allSelected) -> onSelectionChanged(newValue, selected);
+            newValue.getHierarchy().getSelectionModel().addPathObjectSelectionListener(selectionListener);
+        }
+        cancel();
+    };
+    private volatile double targetMPP = PreferenceManager.TILE_TARGET_MPP.get();
+    private Job job;
+    private boolean installed;
+
+    private TileStaging() {
+    }
+
+    /**
+     * Starts listening to selection changes of the current image.
+     */
+    public synchronized void install(QuPathGUI qupath) {
+        if (installed) return;
+        installed = true;
+        qupath.imageDataProperty().addListener(imageDataListener);
+        imageDataListener.changed(qupath.imageDataProperty(), null, qupath.getImageData());
+    }
+
+    /**
+     * Sets the target MPP used to plan staged tiles; it should follow the value the next run will use.
+     */
+    public void setTargetMPP(double targetMPP) {
+        this.targetMPP = targetMPP;
+    }
+
+    /**
+     * Starts staging the selected annotation. Called on the FX thread, so the tiles are planned by the job.
+     */
+    private void onSelectionChanged(ImageData<BufferedImage> imageData, PathObject selected) {
+        cancel();
+        if (!PreferenceManager.PREFETCH_ON_SELECTION.get() || selected == null
+                || !selected.isAnnotation() || !selected.hasROI()) return;
+        start(new Job(imageData, selected.getROI(), targetMPP));
+    }
+
+    private synchronized void start(Job newJob) {
+        job = newJob;
+        executor.submit(newJob::run);
+    }
+
+    /**
+     * Cancels the current staging job, if any. Tiles staged so far remain available.
+     */
+    public synchronized void cancel() {
+        if (job != null) job.cancelled = true;
+    }
+
+    /**
+     * Moves staged tiles that the run needs into the tile directory and returns them.
+     * Staging of the current selection is cancelled, as the run takes over.
+     */
+    public synchronized Set<ImageRegion> take(
+            ImageData<BufferedImage> imageData,
+            ExportConfig spec,
+            Collection<ImageRegion> tiles,
+            Path outputDir
+    ) {
+        if (job == null) return Set.of();
+        var current = job;
+        current.cancelled = true;
+        if (current.imageData != imageData) return Set.of();
+
+        Set<ImageRegion> moved = new HashSet<>();
+        synchronized (current) {
+            if (current.spec == null || !sameExport(current.spec, spec)) return Set.of();
+            for (var tile : tiles) {
+                if (!current.staged.contains(tile)) continue;
+                var name = TileIO.tileFileName(imageData, spec, tile);
+                try {
+                    Files.move(current.directory.resolve(name), outputDir.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+                    moved.add(tile);
+                } catch (IOException e) {
+                    LOGGER.debug("Could not reuse staged tile {}", name, e);
+                }
+            }
+            current.staged.removeAll(moved);
+        }
+        if (!moved.isEmpty()) LOGGER.info("Reused {} of {} staged tile(s)", moved.size(), tiles.size());
+        return moved;
+    }
+
+    private static boolean sameExport(ExportConfig a, ExportConfig b) {
+        return a.downsample() == b.downsample()
+                && a.tileSize() == b.tileSize()
+                && a.overlapPixels() == b.overlapPixels()
+                && a.imageExtension().equals(b.imageExtension());
+    }
+
+    /**
+     * Staging of the tiles of one selection. The tiles are planned on the staging thread, then written one at
+     * a time while holding the job's lock, so {@link #take} never sees a partially written tile.
+     */
+    private static final class Job {
+
+        private final ImageData<BufferedImage> imageData;
+        private final ROI roi;
+        private final double targetMPP;
+        private final Set<ImageRegion> staged = new HashSet<>();
+        private ExportConfig spec;
+        private Path directory;
+        private volatile boolean cancelled;
+
+        private Job(ImageData<BufferedImage> imageData, ROI roi, double targetMPP) {
+            this.imageData = imageData;
+            this.roi = roi;
+            this.targetMPP = targetMPP;
+        }
+
+        private void run() {
+            if (cancelled) return;
+            List<ImageRegion> tiles;
+            try {
+                var plannedSpec = InferenceManager.createExportConfig(imageData, roi, targetMPP);
+                var server = imageData.getServer();
+                tiles = TileGrid.of(plannedSpec, server.getWidth(), server.getHeight()).tiles();
+                var plannedDirectory = InferenceDirectory.DEFAULT.scratch("staged").roi();
+                synchronized (this) {
+                    spec = plannedSpec;
+                    directory = plannedDirectory;
+                }
+            } catch (IOException | RuntimeException e) {
+                LOGGER.debug("Could not stage tiles for the selection", e);
+                return;
+            }
+            if (cancelled) return;
+            Utils.clearDir(directory);
+            try (var source = TileSource.create(imageData.getServer(), spec, tiles)) {
+                for (var tile : source.order(tiles)) {
+                    synchronized (this) {
+                        if (cancelled) return;
+                        TileIO.exportTile(source, imageData, spec, tile, directory);
+                        staged.add(tile);
+                    }
+                }
+            } catch (IOException e) {
+                LOGGER.debug("Staging stopped", e);
+                return;
+            }
+            LOGGER.debug("Staged {} tile(s)", staged.size());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference.io;
+
+import qupath.lib.images.writers.ImageWriterTools;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.FileImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Writes tile images, reusing one ImageIO writer per format and thread instead of looking one up for every tile.
+ * Formats without an ImageIO writer are written through QuPath's {@link ImageWriterTools}.
+ */
+final class TileWriter {
+
+    private static final ThreadLocal<Map<String, Optional<ImageWriter>>> WRITERS =
+            ThreadLocal.withInitial(HashMap::new);
+
+    private TileWriter() {
+    }
+
+    /**
+     * Writes the image to the file, in the format given by the file extension.
+     */
+    static void write(BufferedImage image, Path file) throws IOException {
+        String name = file.getFileName().toString();
+        String format = name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        var writer = WRITERS.get().computeIfAbsent(format, TileWriter::createWriter);
+        if (writer.isEmpty()) {
+            ImageWriterTools.writeImage(image, file.toString());
+            return;
+        }
+        Files.deleteIfExists(file);
+        try (var output = new FileImageOutputStream(file.toFile())) {
+            writer.get().setOutput(output);
+            writer.get().write(image);
+        } finally {
+            writer.get().reset();
+        }
+    }
+
+    private static Optional<ImageWriter> createWriter(String format) {
+        var writers = ImageIO.getImageWritersBySuffix(format);
+        return writers.hasNext() ? Optional.of(writers.next()) : Optional.empty();
+    }
+}
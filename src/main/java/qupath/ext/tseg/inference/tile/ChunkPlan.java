@@ -0,0 +1,77 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference.tile;
+
+import qupath.ext.tseg.config.ExportConfig;
+
+import java.util.Locale;
+
+/**
+ * Estimated footprint of a job and the block size that keeps each block within a disk and memory budget.
+ * <p>
+ * Estimates are upper bounds per tile: exported tiles take 3 bytes per pixel on disk (a quarter of that for JPEG),
+ * and the worker holds a float RGB input tensor and a float output map of 16 bytes per pixel in memory.
+ * While streaming, the next block is exported while the current one is inferred, so two blocks are on disk at once.
+ *
+ * @param tiles       number of tiles of the job
+ * @param pixels      tile pixels at the export resolution
+ * @param diskBytes   estimated size of all exported tiles
+ * @param memoryBytes estimated worker memory if all tiles are processed at once
+ * @param blockTiles  tiles per block side, or 0 to process all tiles as one block
+ * @param budgeted    whether the budget reduced the block size
+ */
+public record ChunkPlan(int tiles, long pixels, long diskBytes, long memoryBytes, int blockTiles, boolean budgeted) {
+
+    private static final int RGB_BYTES = 3;
+    private static final int WORKER_BYTES_PER_PIXEL = RGB_BYTES * Float.BYTES + Float.BYTES;
+
+    /**
+     * Plans the blocks of a job of the given number of tiles.
+     *
+     * @param diskBudget          bytes of exported tiles allowed on disk at once
+     * @param memoryBudget        bytes of worker memory allowed for one block
+     * @param preferredBlockTiles tiles per block side requested by the user, or 0 for a single block
+     */
+    public static ChunkPlan of(ExportConfig spec, int tiles, long diskBudget, long memoryBudget, int preferredBlockTiles) {
+        long tilePixels = (long) spec.tileSize() * spec.tileSize();
+        long diskPerTile = diskBytesPerTile(spec);
+        long memoryPerTile = tilePixels * WORKER_BYTES_PER_PIXEL;
+        long diskBytes = tiles * diskPerTile;
+        long memoryBytes = tiles * memoryPerTile;
+        int preferred = Math.max(0, preferredBlockTiles);
+        if (diskBytes <= diskBudget && memoryBytes <= memoryBudget) {
+            return new ChunkPlan(tiles, tiles * tilePixels, diskBytes, memoryBytes, preferred, false);
+        }
+
+        long tilesPerBlock = Math.min(diskBudget / (2 * diskPerTile), memoryBudget / memoryPerTile);
+        int budgetTiles = (int) Math.max(1, Math.floor(Math.sqrt(tilesPerBlock)));
+        boolean budgeted = preferred == 0 || budgetTiles < preferred;
+        return new ChunkPlan(tiles, tiles * tilePixels, diskBytes, memoryBytes,
+                budgeted ? budgetTiles : preferred, budgeted);
+    }
+
+    /**
+     * Estimates the disk size of one exported tile.
+     */
+    public static long diskBytesPerTile(ExportConfig spec) {
+        long bytes = (long) spec.tileSize() * spec.tileSize() * RGB_BYTES;
+        String extension = spec.imageExtension().toLowerCase(Locale.ROOT);
+        return extension.endsWith("jpg") || extension.endsWith("jpeg") ? bytes / 4 : bytes;
+    }
+}
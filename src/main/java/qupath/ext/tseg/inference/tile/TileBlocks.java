@@ -0,0 +1,141 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference.tile;
+
+import qupath.ext.tseg.config.ExportConfig;
+import qupath.lib.regions.ImageRegion;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Groups grid tiles into connected components and square spatial blocks that are processed separately.
+ */
+public final class TileBlocks {
+
+    /**
+     * Splits the tiles into blocks of up to {@code blockTiles x blockTiles} grid tiles, ordered by the distance
+     * of their centre to the given point (full resolution coordinates), so processing goes from there outwards.
+     * A block size below 1 returns all tiles as a single block.
+     */
+    public static List<List<ImageRegion>> centerOut(
+            List<ImageRegion> tiles,
+            ExportConfig spec,
+            int blockTiles,
+            double centerX,
+            double centerY
+    ) {
+        if (blockTiles < 1 || tiles.isEmpty()) return List.of(tiles);
+        long blockSize = (long) TileGrid.tileStep(spec) * blockTiles;
+        Map<Long, List<ImageRegion>> blocks = new LinkedHashMap<>();
+        for (var tile : tiles) {
+            long bx = Math.floorDiv(tile.getX(), blockSize);
+            long by = Math.floorDiv(tile.getY(), blockSize);
+            blocks.computeIfAbsent(cell(bx, by), k -> new ArrayList<>()).add(tile);
+        }
+        List<List<ImageRegion>> ordered = new ArrayList<>(blocks.values());
+        ordered.sort(Comparator.comparingDouble(block -> distance(block, centerX, centerY)));
+        return ordered;
+    }
+
+    /**
+     * Splits the tiles into connected components, so the separate fragments of a multipart ROI can be processed
+     * as jobs with tight bounds instead of one job over the bounding box of all fragments.
+     * Tiles are connected if they are grid neighbours, including diagonal ones. Components are sorted from the
+     * largest to the smallest and keep the order of the tiles within them.
+     */
+    public static List<List<ImageRegion>> components(List<ImageRegion> tiles, ExportConfig spec) {
+        if (tiles.size() < 2) return List.of(tiles);
+        long step = TileGrid.tileStep(spec);
+        Map<Long, Integer> componentOf = new HashMap<>();
+        for (var tile : tiles) {
+            componentOf.put(cell(Math.floorDiv(tile.getX(), step), Math.floorDiv(tile.getY(), step)), -1);
+        }
+
+        // Flood fill the occupied grid cells
+        int count = 0;
+        var queue = new ArrayDeque<Long>();
+        for (var entry : componentOf.entrySet()) {
+            if (entry.getValue() >= 0) continue;
+            int component = count++;
+            entry.setValue(component);
+            queue.add(entry.getKey());
+            while (!queue.isEmpty()) {
+                long key = queue.poll();
+                long cx = key >> 32;
+                long cy = (int) key;
+                for (long dy = -1; dy <= 1; dy++) {
+                    for (long dx = -1; dx <= 1; dx++) {
+                        long neighbour = cell(cx + dx, cy + dy);
+                        var value = componentOf.get(neighbour);
+                        if (value != null && value < 0) {
+                            componentOf.put(neighbour, component);
+                            queue.add(neighbour);
+                        }
+                    }
+                }
+            }
+        }
+        if (count == 1) return List.of(tiles);
+
+        List<List<ImageRegion>> components = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) components.add(new ArrayList<>());
+        for (var tile : tiles) {
+            components.get(componentOf.get(cell(Math.floorDiv(tile.getX(), step), Math.floorDiv(tile.getY(), step))))
+                    .add(tile);
+        }
+        components.sort(Comparator.comparingInt((List<ImageRegion> component) -> component.size()).reversed());
+        return components;
+    }
+
+    /**
+     * Splits each component into blocks as {@link #centerOut} does, so no block spans two components, and orders
+     * all blocks by the distance of their centre to the given point. A block size below 1 keeps each component
+     * as a single block.
+     */
+    public static List<List<ImageRegion>> centerOutByComponent(
+            List<List<ImageRegion>> components,
+            ExportConfig spec,
+            int blockTiles,
+            double centerX,
+            double centerY
+    ) {
+        List<List<ImageRegion>> blocks = new ArrayList<>();
+        for (var component : components) {
+            blocks.addAll(centerOut(component, spec, blockTiles, centerX, centerY));
+        }
+        if (blocks.size() > 1) blocks.sort(Comparator.comparingDouble(block -> distance(block, centerX, centerY)));
+        return blocks;
+    }
+
+    private static double distance(List<ImageRegion> block, double centerX, double centerY) {
+        var bounds = TileGrid.bounds(block);
+        return Math.hypot(bounds.getX() + bounds.getWidth() / 2.0 - centerX,
+                bounds.getY() + bounds.getHeight() / 2.0 - centerY);
+    }
+
+    private static long cell(long x, long y) {
+        return x << 32 | (y & 0xffffffffL);
+    }
+}
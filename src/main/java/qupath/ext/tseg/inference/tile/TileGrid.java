@@ -0,0 +1,111 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference.tile;
+
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import qupath.ext.tseg.config.ExportConfig;
+import qupath.lib.regions.ImageRegion;
+import qupath.lib.roi.GeometryTools;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Grid of tile regions (full resolution coordinates) covering an export specification.
+ * <p>
+ * The grid is anchored to the image origin rather than to the ROI, so the same image area always maps to
+ * the same tiles and grids for edited versions of an ROI can be compared tile by tile.
+ * Tiles that do not intersect the ROI are skipped.
+ */
+public record TileGrid(ExportConfig spec, List<ImageRegion> tiles, int skippedTiles) {
+
+    public TileGrid {
+        tiles = Collections.unmodifiableList(tiles);
+    }
+
+    /**
+     * Computes the tile grid covering the ROI, clipped to the image size.
+     */
+    public static TileGrid of(ExportConfig spec, int imageWidth, int imageHeight) {
+        var roi = spec.roi();
+        int extent = tileExtent(spec);
+        int step = tileStep(spec);
+
+        int minX = Math.floorDiv(Math.max(0, (int) Math.floor(roi.getBoundsX())), step) * step;
+        int minY = Math.floorDiv(Math.max(0, (int) Math.floor(roi.getBoundsY())), step) * step;
+        int maxX = Math.min(imageWidth, (int) Math.ceil(roi.getBoundsX() + roi.getBoundsWidth()));
+        int maxY = Math.min(imageHeight, (int) Math.ceil(roi.getBoundsY() + roi.getBoundsHeight()));
+
+        var roiGeometry = PreparedGeometryFactory.prepare(roi.getGeometry());
+        List<ImageRegion> tiles = new ArrayList<>();
+        int skipped = 0;
+        for (int y = minY; y < maxY; y += step) {
+            for (int x = minX; x < maxX; x += step) {
+                int w = Math.min(extent, imageWidth - x);
+                int h = Math.min(extent, imageHeight - y);
+                if (!roiGeometry.intersects(GeometryTools.createRectangle(x, y, w, h))) {
+                    skipped++;
+                    continue;
+                }
+                tiles.add(ImageRegion.createInstance(x, y, w, h, roi.getZ(), roi.getT()));
+            }
+        }
+        return new TileGrid(spec, tiles, skipped);
+    }
+
+    /**
+     * Calculates the tile width and height in full resolution pixels.
+     */
+    public static int tileExtent(ExportConfig spec) {
+        return Math.max(1, (int) Math.round(spec.tileSize() * spec.downsample()));
+    }
+
+    /**
+     * Calculates the distance between adjacent tile origins in full resolution pixels.
+     */
+    public static int tileStep(ExportConfig spec) {
+        return Math.max(1, (int) Math.round((spec.tileSize() - spec.overlapPixels()) * spec.downsample()));
+    }
+
+    /**
+     * Calculates the bounding region of the given tiles.
+     */
+    public static ImageRegion bounds(Collection<ImageRegion> tiles) {
+        if (tiles.isEmpty()) throw new IllegalArgumentException("No tiles");
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        for (var tile : tiles) {
+            minX = Math.min(minX, tile.getMinX());
+            minY = Math.min(minY, tile.getMinY());
+            maxX = Math.max(maxX, tile.getMaxX());
+            maxY = Math.max(maxY, tile.getMaxY());
+        }
+        var first = tiles.iterator().next();
+        return ImageRegion.createInstance(minX, minY, maxX - minX, maxY - minY, first.getZ(), first.getT());
+    }
+
+    /**
+     * Gets the number of tiles.
+     */
+    public int size() {
+        return tiles.size();
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference.tile;
+
+import qupath.ext.tseg.config.ExportConfig;
+import qupath.lib.regions.ImageRegion;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Traversal orders for the tiles of a grid.
+ * <p>
+ * The order decides how long source data of neighbouring tiles stays in the image server's tile cache.
+ * With a cache smaller than a row of native tiles, raster order evicts data before the next row reuses it;
+ * the Hilbert curve keeps consecutive tiles close in both directions.
+ */
+public enum TileOrder {
+
+    /**
+     * Row by row, left to right.
+     */
+    RASTER {
+        @Override
+        Comparator<ImageRegion> comparator(int step, int gridSize) {
+            return Comparator.<ImageRegion>comparingInt(ImageRegion::getY).thenComparingInt(ImageRegion::getX);
+        }
+    },
+
+    /**
+     * Row by row, alternating left to right and right to left.
+     */
+    SERPENTINE {
+        @Override
+        Comparator<ImageRegion> comparator(int step, int gridSize) {
+            return Comparator.<ImageRegion>comparingInt(ImageRegion::getY)
+                    .thenComparingInt(t -> (t.getY() / step) % 2 == 0 ? t.getX() : -t.getX());
+        }
+    },
+
+    /**
+     * Along a Hilbert curve over the grid.
+     */
+    HILBERT {
+        @Override
+        Comparator<ImageRegion> comparator(int step, int gridSize) {
+            return Comparator.comparingLong(t -> hilbertIndex(gridSize, t.getX() / step, t.getY() / step));
+        }
+    };
+
+    public static final TileOrder DEFAULT = HILBERT;
+
+    abstract Comparator<ImageRegion> comparator(int step, int gridSize);
+
+    /**
+     * Sorts the tiles of a grid for the specification into this order.
+     */
+    public List<ImageRegion> order(Collection<ImageRegion> tiles, ExportConfig spec) {
+        int step = TileGrid.tileStep(spec);
+        int maxIndex = 1;
+        for (var tile : tiles) {
+            maxIndex = Math.max(maxIndex, Math.max(tile.getX(), tile.getY()) / step + 1);
+        }
+        int gridSize = Integer.highestOneBit(maxIndex);
+        if (gridSize < maxIndex) gridSize <<= 1;
+        return tiles.stream().sorted(comparator(step, gridSize)).toList();
+    }
+
+    /**
+     * Gets the order with the given name, or the default order if the name is unknown.
+     */
+    public static TileOrder fromString(String name) {
+        for (var order : values()) {
+            if (order.name().equalsIgnoreCase(name == null ? "" : name.trim())) return order;
+        }
+        return DEFAULT;
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Calculates the distance along the Hilbert curve of a cell in a grid with a power of two size.
+     */
+    static long hilbertIndex(int gridSize, int x, int y) {
+        long index = 0;
+        for (int s = gridSize / 2; s > 0; s /= 2) {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int ry = (y & s) > 0 ? 1 : 0;
+            index += (long) s * s * ((3 * rx) ^ ry);
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = s - 1 - x;
+                    y = s - 1 - y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference.tile;
+
+import qupath.ext.tseg.config.ExportConfig;
+import qupath.lib.images.servers.ImageServer;
+import qupath.lib.regions.ImageRegion;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Describes how tiles are read from the image server: the pyramid level used as the source, the remaining
+ * scale factor applied in Java, and how many native server tiles the tile requests touch.
+ *
+ * @param level              index of the pyramid level tiles are read from
+ * @param levelDownsample    downsample of that level
+ * @param scale              remaining downsample from the level to the tile resolution (at least 1)
+ * @param nativeTileWidth    width of the server's native tiles in level pixels
+ * @param nativeTileHeight   height of the server's native tiles in level pixels
+ * @param bytesPerPixel      decoded bytes per pixel
+ * @param nativeTileRequests native tiles touched summed over all tile requests, i.e. decodes without any caching
+ * @param nativeTiles        distinct native tiles touched, i.e. decodes if each native tile is decoded once
+ */
+public record TileReadPlan(
+        int level,
+        double levelDownsample,
+        double scale,
+        int nativeTileWidth,
+        int nativeTileHeight,
+        int bytesPerPixel,
+        long nativeTileRequests,
+        long nativeTiles
+) {
+
+    private static final double TOLERANCE = 1e-6;
+
+    /**
+     * Plans reading the tiles (full resolution regions) of the specification from the server.
+     */
+    public static TileReadPlan of(ImageServer<?> server, ExportConfig spec, Collection<ImageRegion> tiles) {
+        double[] downsamples = server.getPreferredDownsamples();
+        int level = 0;
+        for (int i = 1; i < downsamples.length; i++) {
+            if (downsamples[i] <= spec.downsample() * (1 + TOLERANCE) && downsamples[i] > downsamples[level])
+                level = i;
+        }
+        double levelDownsample = downsamples[level];
+        var metadata = server.getMetadata();
+        int tileWidth = Math.max(1, metadata.getPreferredTileWidth());
+        int tileHeight = Math.max(1, metadata.getPreferredTileHeight());
+        int bytesPerPixel = server.isRGB()
+                ? 4
+                : Math.max(1, server.nChannels() * server.getPixelType().getBytesPerPixel());
+
+        long requests = 0;
+        Set<Long> distinct = new HashSet<>();
+        for (var tile : tiles) {
+            int x0 = (int) Math.floor(tile.getX() / levelDownsample) / tileWidth;
+            int y0 = (int) Math.floor(tile.getY() / levelDownsample) / tileHeight;
+            int x1 = ((int) Math.ceil(tile.getMaxX() / levelDownsample) - 1) / tileWidth;
+            int y1 = ((int) Math.ceil(tile.getMaxY() / levelDownsample) - 1) / tileHeight;
+            for (int ty = y0; ty <= y1; ty++) {
+                for (int tx = x0; tx <= x1; tx++) {
+                    requests++;
+                    distinct.add((long) tx << 32 | (ty & 0xffffffffL));
+                }
+            }
+        }
+        return new TileReadPlan(level, levelDownsample, Math.max(1, spec.downsample() / levelDownsample),
+                tileWidth, tileHeight, bytesPerPixel, requests, distinct.size());
+    }
+
+    /**
+     * Checks whether the level matches the tile resolution, so no resampling is needed.
+     */
+    public boolean isExactLevel() {
+        return Math.abs(scale - 1) <= TOLERANCE;
+    }
+
+    /**
+     * Calculates the decoded bytes if every native tile is decoded once.
+     */
+    public long decodedBytes() {
+        return nativeTiles * nativeTileBytes();
+    }
+
+    /**
+     * Calculates the decoded bytes if every tile request decodes all native tiles it touches.
+     */
+    public long unplannedDecodedBytes() {
+        return nativeTileRequests * nativeTileBytes();
+    }
+
+    private long nativeTileBytes() {
+        return (long) nativeTileWidth * nativeTileHeight * bytesPerPixel;
+    }
+}
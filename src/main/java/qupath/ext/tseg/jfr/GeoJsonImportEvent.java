@@ -0,0 +1,45 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Parsing of result polygons from GeoJSON.
+ */
+@Name("qupath.ext.tseg.GeoJsonImport")
+@Label("TSEG GeoJSON Import")
+@Category({"QuPath", "TSEG"})
+@Description("Parsing of result polygons from GeoJSON.")
+@StackTrace(false)
+public class GeoJsonImportEvent extends Event {
+
+    @Label("Polygon Count")
+    public int polygonCount;
+
+    @Label("File Size")
+    @DataAmount
+    public long fileSize;
+}
@@ -0,0 +1,50 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Run of the inference worker subprocess, from start until exit.
+ */
+@Name("qupath.ext.tseg.InferenceWorker")
+@Label("TSEG Inference Worker")
+@Category({"QuPath", "TSEG"})
+@Description("Run of the inference worker subprocess, from start until exit.")
+@StackTrace(false)
+public class InferenceWorkerEvent extends Event {
+
+    @Label("Model")
+    public String model;
+
+    @Label("Tile Count")
+    public int tileCount;
+
+    @Label("Exit Code")
+    public int exitCode;
+
+    @Label("Stopped")
+    @Description("Whether the worker was stopped by the watchdog or because the run was cancelled.")
+    public boolean stopped;
+}
@@ -0,0 +1,61 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package qupath.ext.tseg.jfr;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Copies the bundled Flight Recorder settings out of the extension jar, so recordings can refer to them with
+ * {@code -XX:StartFlightRecording:settings=<path>}.
+ */
+public final class JfrSettings {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JfrSettings.class);
+    private static final String RESOURCE = "/qupath/ext/tseg/jfr/tseg.jfc";
+    public static final String FILE_NAME = "tseg.jfc";
+
+    private JfrSettings() {
+    }
+
+    /**
+     * Writes the settings into the directory unless an identical file is already there, and returns its path.
+     * Failures are logged and return null.
+     */
+    public static Path extract(Path directory) {
+        var file = directory.resolve(FILE_NAME);
+        try (InputStream in = JfrSettings.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) throw new IOException(RESOURCE + " not found");
+            byte[] settings = in.readAllBytes();
+            if (Files.isRegularFile(file) && Arrays.equals(Files.readAllBytes(file), settings)) return file;
+            Files.createDirectories(directory);
+            Files.write(file, settings);
+            LOGGER.debug("Wrote Flight Recorder settings to {}", file);
+            return file;
+        } catch (IOException e) {
+            LOGGER.warn("Could not write Flight Recorder settings to {}", file, e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Export of image tiles for a selected region.
+ */
+@Name("qupath.ext.tseg.TileExport")
+@Label("TSEG Tile Export")
+@Category({"QuPath", "TSEG"})
+@Description("Export of image tiles for a selected region.")
+@StackTrace(false)
+public class TileExportEvent extends Event {
+
+    @Label("ROI Width")
+    @Description("Width of the exported region in full resolution pixels")
+    public int roiWidth;
+
+    @Label("ROI Height")
+    @Description("Height of the exported region in full resolution pixels")
+    public int roiHeight;
+
+    @Label("Downsample")
+    public double downsample;
+
+    @Label("Tile Count")
+    public int tileCount;
+
+    @Label("Bytes Written")
+    @DataAmount
+    public long bytesWritten;
+}
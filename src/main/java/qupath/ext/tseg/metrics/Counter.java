@@ -0,0 +1,68 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.metrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic counter with labels.
+ */
+public final class Counter {
+
+    private final String name;
+    private final String help;
+    private final List<String> labelNames;
+    private final Map<List<String>, LongAdder> values = new ConcurrentHashMap<>();
+
+    Counter(String name, String help, String... labelNames) {
+        this.name = name;
+        this.help = help;
+        this.labelNames = List.of(labelNames);
+    }
+
+    /**
+     * Increases the counter for the given label values.
+     */
+    public void increment(long amount, String... labelValues) {
+        if (amount < 0) throw new IllegalArgumentException("Counters can only increase");
+        if (labelValues.length != labelNames.size())
+            throw new IllegalArgumentException("Expected labels " + labelNames);
+        values.computeIfAbsent(List.of(labelValues), k -> new LongAdder()).add(amount);
+    }
+
+    /**
+     * Gets the current value for the given label values.
+     */
+    public long get(String... labelValues) {
+        var value = values.get(List.of(labelValues));
+        return value == null ? 0 : value.sum();
+    }
+
+    void writeTo(StringBuilder sb) {
+        OpenMetrics.writeHeader(sb, name, "counter", help);
+        Map<List<String>, LongAdder> sorted = new TreeMap<>(OpenMetrics.LABEL_ORDER);
+        sorted.putAll(values);
+        sorted.forEach((labelValues, value) -> OpenMetrics.writeSample(
+                sb, name + "_total", labelNames, labelValues, value.sum()));
+    }
+}
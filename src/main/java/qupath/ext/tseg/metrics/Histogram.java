@@ -0,0 +1,147 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Latency histogram with fixed buckets and labels.
+ * <p>
+ * Exposed both as an OpenMetrics histogram and as a summary with quantiles estimated from the buckets.
+ */
+public final class Histogram {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+    private final String name;
+    private final String help;
+    private final List<String> labelNames;
+    private final double[] bounds;
+    private final Map<List<String>, Series> series = new ConcurrentHashMap<>();
+
+    Histogram(String name, String help, double[] bounds, String... labelNames) {
+        this.name = name;
+        this.help = help;
+        this.bounds = bounds.clone();
+        this.labelNames = List.of(labelNames);
+    }
+
+    /**
+     * Records a value for the given label values.
+     */
+    public void observe(double value, String... labelValues) {
+        if (labelValues.length != labelNames.size())
+            throw new IllegalArgumentException("Expected labels " + labelNames);
+        series.computeIfAbsent(List.of(labelValues), k -> new Series(bounds.length)).observe(bounds, value);
+    }
+
+    /**
+     * Estimates a quantile for the given label values, or NaN if nothing was recorded.
+     */
+    public double quantile(double q, String... labelValues) {
+        var s = series.get(List.of(labelValues));
+        return s == null ? Double.NaN : s.quantile(bounds, q);
+    }
+
+    void writeTo(StringBuilder sb) {
+        Map<List<String>, Series> sorted = new TreeMap<>(OpenMetrics.LABEL_ORDER);
+        sorted.putAll(series);
+
+        List<String> bucketLabels = new ArrayList<>(labelNames);
+        bucketLabels.add("le");
+        OpenMetrics.writeHeader(sb, name, "histogram", help);
+        sorted.forEach((labelValues, s) -> {
+            long cumulative = 0;
+            for (int i = 0; i <= bounds.length; i++) {
+                cumulative += s.counts.get(i);
+                List<String> values = new ArrayList<>(labelValues);
+                values.add(i < bounds.length ? OpenMetrics.formatValue(bounds[i]) : "+Inf");
+                OpenMetrics.writeSample(sb, name + "_bucket", bucketLabels, values, cumulative);
+            }
+            OpenMetrics.writeSample(sb, name + "_count", labelNames, labelValues, cumulative);
+            OpenMetrics.writeSample(sb, name + "_sum", labelNames, labelValues, s.sum.sum());
+        });
+
+        String summaryName = name.replace("_seconds", "_quantile_seconds");
+        List<String> quantileLabels = new ArrayList<>(labelNames);
+        quantileLabels.add("quantile");
+        OpenMetrics.writeHeader(sb, summaryName, "summary", help + " Quantiles estimated from histogram buckets.");
+        sorted.forEach((labelValues, s) -> {
+            for (double q : QUANTILES) {
+                List<String> values = new ArrayList<>(labelValues);
+                values.add(OpenMetrics.formatValue(q));
+                OpenMetrics.writeSample(sb, summaryName, quantileLabels, values, s.quantile(bounds, q));
+            }
+            OpenMetrics.writeSample(sb, summaryName + "_count", labelNames, labelValues, s.count());
+            OpenMetrics.writeSample(sb, summaryName + "_sum", labelNames, labelValues, s.sum.sum());
+        });
+    }
+
+    /**
+     * Bucket counts for one set of label values.
+     */
+    private static final class Series {
+
+        private final AtomicLongArray counts;
+        private final DoubleAdder sum = new DoubleAdder();
+
+        private Series(int nBounds) {
+            counts = new AtomicLongArray(nBounds + 1);
+        }
+
+        private void observe(double[] bounds, double value) {
+            int i = 0;
+            while (i < bounds.length && value > bounds[i]) i++;
+            counts.incrementAndGet(i);
+            sum.add(value);
+        }
+
+        private long count() {
+            long n = 0;
+            for (int i = 0; i < counts.length(); i++) n += counts.get(i);
+            return n;
+        }
+
+        /**
+         * Interpolates linearly within the bucket that contains the quantile.
+         */
+        private double quantile(double[] bounds, double q) {
+            long total = count();
+            if (total == 0) return Double.NaN;
+            double rank = q * total;
+            long cumulative = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                long c = counts.get(i);
+                if (cumulative + c >= rank && c > 0) {
+                    if (i == bounds.length) return bounds[bounds.length - 1];
+                    double lower = i == 0 ? 0 : bounds[i - 1];
+                    return lower + (bounds[i] - lower) * (rank - cumulative) / c;
+                }
+                cumulative += c;
+            }
+            return bounds[bounds.length - 1];
+        }
+    }
+}
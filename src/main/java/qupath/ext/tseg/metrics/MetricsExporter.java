@@ -0,0 +1,118 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import qupath.ext.tseg.config.PreferenceManager;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the metrics registry as a periodically written OpenMetrics file
+ * and, optionally, on a localhost HTTP endpoint.
+ */
+public final class MetricsExporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetricsExporter.class);
+    private static final String HTTP_PATH = "/metrics";
+
+    private static ScheduledExecutorService scheduler;
+    private static HttpServer httpServer;
+
+    private MetricsExporter() {
+    }
+
+    /**
+     * Starts exporting the default registry using the current preferences. Calling it again has no effect.
+     */
+    public static synchronized void start() {
+        if (scheduler != null) return;
+        var registry = MetricsRegistry.DEFAULT;
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "tseg-metrics");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(1, PreferenceManager.METRICS_INTERVAL.get());
+        scheduler.scheduleAtFixedRate(() -> writeFile(registry), interval, interval, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> writeFile(registry), "tseg-metrics-shutdown"));
+
+        int port = PreferenceManager.METRICS_PORT.get();
+        if (port > 0) {
+            startHttpServer(registry, port);
+        }
+    }
+
+    /**
+     * Writes the registry to the configured metrics file, replacing it atomically where supported.
+     */
+    private static void writeFile(MetricsRegistry registry) {
+        String fileName = PreferenceManager.METRICS_FILE.get();
+        if (fileName == null || fileName.isBlank()) return;
+
+        var file = Path.of(fileName);
+        var tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            if (file.getParent() != null) Files.createDirectories(file.getParent());
+            Files.writeString(tmp, registry.toOpenMetrics());
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Failed to write metrics to {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Serves the registry on the loopback interface only.
+     */
+    private static void startHttpServer(MetricsRegistry registry, int port) {
+        try {
+            httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            httpServer.createContext(HTTP_PATH, exchange -> {
+                byte[] body = registry.toOpenMetrics().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", OpenMetrics.CONTENT_TYPE);
+                exchange.sendResponseHeaders(200, body.length);
+                try (var out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            httpServer.setExecutor(scheduler);
+            httpServer.start();
+            LOGGER.info("Serving TSEG metrics on http://localhost:{}{}", port, HTTP_PATH);
+        } catch (IOException e) {
+            LOGGER.warn("Could not start metrics endpoint on port {}: {}", port, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.metrics;
+
+import qupath.ext.tseg.inference.RunReport;
+
+import java.util.List;
+
+/**
+ * Aggregated counters and latency histograms across inference runs.
+ */
+public final class MetricsRegistry {
+
+    public static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    private static final double[] LATENCY_BUCKETS = {
+            0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 25, 50, 100, 250, 500, 1000
+    };
+
+    private final Counter runs = new Counter(
+            "tseg_runs", "Inference runs by outcome.", "model", "status");
+    private final Counter tilesProcessed = new Counter(
+            "tseg_tiles_processed", "Tiles exported and sent to inference.", "model");
+    private final Counter tilesSkipped = new Counter(
+            "tseg_tiles_skipped", "Planned tiles that did not need inference.", "model");
+    private final Counter polygonsCreated = new Counter(
+            "tseg_polygons_created", "Result polygons added to the hierarchy.", "model");
+    private final Histogram stageDuration = new Histogram(
+            "tseg_stage_duration_seconds", "Wall time per pipeline stage.", LATENCY_BUCKETS, "stage", "model");
+    private final Histogram runDuration = new Histogram(
+            "tseg_run_duration_seconds", "Wall time per inference run.", LATENCY_BUCKETS, "model");
+
+    private final List<Counter> counters = List.of(runs, tilesProcessed, tilesSkipped, polygonsCreated);
+    private final List<Histogram> histograms = List.of(stageDuration, runDuration);
+
+    /**
+     * Adds the counts and stage timings of a finished run.
+     */
+    public void record(RunReport report) {
+        String model = report.modelName();
+        runs.increment(1, model, report.isSuccess() ? "success" : "failed");
+        tilesProcessed.increment(report.tileCount(), model);
+        tilesSkipped.increment(report.skippedTileCount(), model);
+        polygonsCreated.increment(report.polygonCount(), model);
+        report.stageTimes().forEach((stage, time) ->
+                stageDuration.observe(time.toNanos() / 1e9, stage.key(), model));
+        runDuration.observe(report.totalTime().toNanos() / 1e9, model);
+    }
+
+    public Counter tilesProcessed() {
+        return tilesProcessed;
+    }
+
+    public Counter tilesSkipped() {
+        return tilesSkipped;
+    }
+
+    public Counter polygonsCreated() {
+        return polygonsCreated;
+    }
+
+    public Histogram stageDuration() {
+        return stageDuration;
+    }
+
+    /**
+     * Renders all metrics in the OpenMetrics text format.
+     */
+    public String toOpenMetrics() {
+        var sb = new StringBuilder();
+        counters.forEach(c -> c.writeTo(sb));
+        histograms.forEach(h -> h.writeTo(sb));
+        sb.append("# EOF\n");
+        return sb.toString();
+    }
+}
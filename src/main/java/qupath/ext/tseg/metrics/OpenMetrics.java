@@ -0,0 +1,77 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.metrics;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Helpers for the OpenMetrics text exposition format.
+ */
+final class OpenMetrics {
+
+    static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    static final Comparator<List<String>> LABEL_ORDER = (a, b) -> {
+        for (int i = 0; i < Math.min(a.size(), b.size()); i++) {
+            int c = a.get(i).compareTo(b.get(i));
+            if (c != 0) return c;
+        }
+        return Integer.compare(a.size(), b.size());
+    };
+
+    private OpenMetrics() {
+    }
+
+    static void writeHeader(StringBuilder sb, String name, String type, String help) {
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        sb.append("# HELP ").append(name).append(' ').append(escape(help)).append('\n');
+    }
+
+    static void writeSample(StringBuilder sb, String name, List<String> labelNames, List<String> labelValues, long value) {
+        writeName(sb, name, labelNames, labelValues);
+        sb.append(' ').append(value).append('\n');
+    }
+
+    static void writeSample(StringBuilder sb, String name, List<String> labelNames, List<String> labelValues, double value) {
+        writeName(sb, name, labelNames, labelValues);
+        sb.append(' ').append(formatValue(value)).append('\n');
+    }
+
+    static String formatValue(double value) {
+        if (Double.isNaN(value)) return "NaN";
+        if (Double.isInfinite(value)) return value > 0 ? "+Inf" : "-Inf";
+        return Double.toString(value);
+    }
+
+    private static void writeName(StringBuilder sb, String name, List<String> labelNames, List<String> labelValues) {
+        sb.append(name);
+        if (labelNames.isEmpty()) return;
+        sb.append('{');
+        for (int i = 0; i < labelNames.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append(labelNames.get(i)).append("=\"").append(escape(labelValues.get(i))).append('"');
+        }
+        sb.append('}');
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
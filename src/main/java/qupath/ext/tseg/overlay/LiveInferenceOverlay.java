@@ -0,0 +1,59 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.overlay;
+
+import qupath.lib.gui.viewer.OverlayOptions;
+import qupath.lib.gui.viewer.overlays.AbstractOverlay;
+import qupath.lib.images.ImageData;
+import qupath.lib.regions.ImageRegion;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Viewer overlay painting the cached masks of a live inference session.
+ */
+public class LiveInferenceOverlay extends AbstractOverlay {
+
+    private final MaskTileCache cache;
+
+    public LiveInferenceOverlay(OverlayOptions options, MaskTileCache cache) {
+        super(options);
+        this.cache = cache;
+    }
+
+    @Override
+    public void paintOverlay(
+            Graphics2D g2d,
+            ImageRegion imageRegion,
+            double downsampleFactor,
+            ImageData<BufferedImage> imageData,
+            boolean paintCompletely
+    ) {
+        if (!isVisible()) return;
+        var g = (Graphics2D) g2d.create();
+        var composite = getAlphaComposite();
+        if (composite != null) g.setComposite(composite);
+        for (var tile : cache.getIntersecting(imageRegion)) {
+            var cell = tile.cell();
+            g.drawImage(tile.mask(), cell.getX(), cell.getY(), cell.getWidth(), cell.getHeight(), null);
+        }
+        g.dispose();
+    }
+}
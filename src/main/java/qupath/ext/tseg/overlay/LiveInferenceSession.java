@@ -0,0 +1,319 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.overlay;
+
+import javafx.application.Platform;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import qupath.ext.tseg.config.ExportConfig;
+import qupath.ext.tseg.inference.InferenceEnvironment;
+import qupath.ext.tseg.inference.InferenceManager;
+import qupath.ext.tseg.inference.RunReport;
+import qupath.ext.tseg.inference.WorkerSession;
+import qupath.ext.tseg.inference.tile.TileGrid;
+import qupath.lib.gui.viewer.QuPathViewer;
+import qupath.lib.gui.viewer.QuPathViewerListener;
+import qupath.lib.images.ImageData;
+import qupath.lib.images.servers.ServerTools;
+import qupath.lib.objects.PathObject;
+import qupath.lib.regions.ImagePlane;
+import qupath.lib.regions.ImageRegion;
+import qupath.lib.roi.ROIs;
+
+import java.awt.Color;
+import java.awt.Shape;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Infers the tiles visible in a viewer and shows the predictions as a pixel overlay.
+ * <p>
+ * Whenever the visible region changes, the tiles it covers at the model resolution are queued ahead of a
+ * ring of neighbouring tiles, nearest to the view centre first. A single worker thread takes batches from
+ * the queue, runs inference on them in one long-lived inference worker with its own scratch directory and
+ * rasterizes the predicted polygons into a tile cache, so panning back to inferred areas repaints immediately.
+ */
+public class LiveInferenceSession implements QuPathViewerListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LiveInferenceSession.class);
+    private static final int MAX_VISIBLE_TILES = 64;
+    private static final int BATCH_SIZE = 16;
+    private static final int CACHE_SIZE = 2048;
+    private static final Color DEFAULT_COLOR = new Color(255, 64, 64);
+
+    private final QuPathViewer viewer;
+    private final Path modelPath;
+    private final double targetMPP;
+    private final double confidence;
+    private final Consumer<Throwable> onFailure;
+    private final MaskTileCache cache = new MaskTileCache(CACHE_SIZE);
+    private final LiveInferenceOverlay overlay;
+    private final PriorityBlockingQueue<TileTask> queue = new PriorityBlockingQueue<>(
+            64, Comparator.comparing(TileTask::prefetch).thenComparingDouble(TileTask::distance));
+    private final Set<ImageRegion> inFlight = ConcurrentHashMap.newKeySet();
+    private final Thread worker;
+    private volatile ExportConfig spec;
+    private volatile boolean running = true;
+
+    private LiveInferenceSession(
+            QuPathViewer viewer,
+            Path modelPath,
+            double targetMPP,
+            double confidence,
+            Consumer<Throwable> onFailure
+    ) {
+        this.viewer = viewer;
+        this.modelPath = modelPath;
+        this.targetMPP = targetMPP;
+        this.confidence = confidence;
+        this.onFailure = onFailure;
+        this.overlay = new LiveInferenceOverlay(viewer.getOverlayOptions(), cache);
+        this.worker = new Thread(this::processQueue, "tseg-live");
+        this.worker.setDaemon(true);
+    }
+
+    /**
+     * Starts a session for the viewer. Must be called on the JavaFX thread.
+     * The failure callback is called on the JavaFX thread after the session stopped because of an error.
+     */
+    public static LiveInferenceSession start(
+            QuPathViewer viewer,
+            Path modelPath,
+            double targetMPP,
+            double confidence,
+            Consumer<Throwable> onFailure
+    ) {
+        if (viewer.getImageData() == null) throw new IllegalStateException("No image loaded");
+        var session = new LiveInferenceSession(viewer, modelPath, targetMPP, confidence, onFailure);
+        viewer.getCustomOverlayLayers().add(session.overlay);
+        viewer.addViewerListener(session);
+        session.worker.start();
+        session.visibleRegionChanged(viewer, viewer.getDisplayedRegionShape());
+        return session;
+    }
+
+    /**
+     * Stops the session and removes its overlay. Must be called on the JavaFX thread.
+     */
+    public void stop() {
+        running = false;
+        worker.interrupt();
+        queue.clear();
+        viewer.removeViewerListener(this);
+        viewer.getCustomOverlayLayers().remove(overlay);
+        cache.clear();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void imageDataChanged(
+            QuPathViewer viewer,
+            ImageData<BufferedImage> imageDataOld,
+            ImageData<BufferedImage> imageDataNew
+    ) {
+        queue.clear();
+        cache.clear();
+        spec = null;
+        if (imageDataNew != null) visibleRegionChanged(viewer, viewer.getDisplayedRegionShape());
+    }
+
+    @Override
+    public void visibleRegionChanged(QuPathViewer viewer, Shape shape) {
+        var imageData = viewer.getImageData();
+        if (!running || imageData == null || shape == null) return;
+        var server = imageData.getServer();
+        var bounds = shape.getBounds();
+        var plane = ImagePlane.getPlane(viewer.getZPosition(), viewer.getTPosition());
+
+        var visibleSpec = InferenceManager.createExportConfig(imageData,
+                ROIs.createRectangleROI(bounds.x, bounds.y, bounds.width, bounds.height, plane), targetMPP);
+        var visible = TileGrid.of(visibleSpec, server.getWidth(), server.getHeight()).tiles();
+        if (visible.size() > MAX_VISIBLE_TILES) {
+            LOGGER.debug("Skipping live inference for {} visible tiles, zoom in further", visible.size());
+            queue.clear();
+            return;
+        }
+        int ring = TileGrid.tileStep(visibleSpec);
+        var ringSpec = InferenceManager.createExportConfig(imageData, ROIs.createRectangleROI(
+                bounds.x - ring, bounds.y - ring, bounds.width + 2.0 * ring, bounds.height + 2.0 * ring, plane), targetMPP);
+        var surrounding = TileGrid.of(ringSpec, server.getWidth(), server.getHeight()).tiles();
+
+        spec = visibleSpec;
+        double cx = bounds.getCenterX();
+        double cy = bounds.getCenterY();
+        Set<ImageRegion> visibleSet = new HashSet<>(visible);
+        List<TileTask> tasks = new ArrayList<>();
+        for (var tile : surrounding) {
+            if (cache.contains(tile) || inFlight.contains(tile)) continue;
+            double distance = Math.hypot(tile.getX() + tile.getWidth() / 2.0 - cx, tile.getY() + tile.getHeight() / 2.0 - cy);
+            tasks.add(new TileTask(tile, !visibleSet.contains(tile), distance));
+        }
+        // Tiles that scrolled out of view are dropped rather than finished
+        queue.clear();
+        queue.addAll(tasks);
+    }
+
+    @Override
+    public void selectedObjectChanged(QuPathViewer viewer, PathObject pathObjectSelected) {
+    }
+
+    @Override
+    public void viewerClosed(QuPathViewer viewer) {
+        stop();
+    }
+
+    /**
+     * Worker loop: takes batches of the most urgent tiles and infers them.
+     */
+    private void processQueue() {
+        InferenceEnvironment environment;
+        WorkerSession session;
+        try {
+            environment = InferenceEnvironment.DEFAULT.withDirectory(
+                    InferenceEnvironment.DEFAULT.directory().scratch("live"));
+            // One worker serves all batches, so the model is loaded once per session rather than per batch
+            session = WorkerSession.open(environment);
+        } catch (IOException e) {
+            fail(e);
+            return;
+        }
+        try (session) {
+            processBatches(environment, session);
+        }
+    }
+
+    /**
+     * Infers batches until the session stops, in the session's worker or, if the launcher cannot keep a
+     * worker running, in a new worker per batch.
+     */
+    private void processBatches(InferenceEnvironment environment, WorkerSession session) {
+        while (running) {
+            List<TileTask> batch = new ArrayList<>();
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, BATCH_SIZE - 1);
+            var batchSpec = spec;
+            var imageData = viewer.getImageData();
+            if (batchSpec == null || imageData == null) continue;
+
+            List<ImageRegion> tiles = batch.stream().map(TileTask::tile).toList();
+            inFlight.addAll(tiles);
+            try {
+                var report = new RunReport(
+                        ServerTools.getDisplayableImageName(imageData.getServer()),
+                        modelPath.getFileName().toString());
+                var predicted = session == null
+                        ? InferenceManager.predictTiles(
+                                imageData, batchSpec, tiles, modelPath, confidence, environment, report)
+                        : InferenceManager.predictTiles(
+                                imageData, batchSpec, tiles, modelPath, confidence, session, report);
+                if (!running || imageData != viewer.getImageData()) continue;
+                for (var tile : tiles) {
+                    cache.put(tile, rasterize(tile, batchSpec, predicted));
+                }
+                Platform.runLater(viewer::repaint);
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+                return;
+            } finally {
+                tiles.forEach(inFlight::remove);
+            }
+        }
+    }
+
+    private void fail(Exception e) {
+        LOGGER.error("Live inference failed", e);
+        Platform.runLater(() -> {
+            if (!running) return;
+            stop();
+            onFailure.accept(e);
+        });
+    }
+
+    /**
+     * Rasterizes the predicted polygons into a 1-bit mask for the tile's cell at the model resolution.
+     */
+    private static MaskTile rasterize(ImageRegion tile, ExportConfig spec, List<PathObject> predicted) {
+        var cell = cell(tile, spec);
+        List<PathObject> inCell = predicted.stream()
+                .filter(p -> p.hasROI() && cell.intersects(ImageRegion.createInstance(p.getROI())))
+                .toList();
+        if (inCell.isEmpty()) return new MaskTile(cell, null);
+
+        double downsample = spec.downsample();
+        int width = Math.max(1, (int) Math.ceil(cell.getWidth() / downsample));
+        int height = Math.max(1, (int) Math.ceil(cell.getHeight() / downsample));
+        var color = inCell.get(0).getPathClass() == null
+                ? DEFAULT_COLOR
+                : new Color(inCell.get(0).getPathClass().getColor());
+        var colorModel = new IndexColorModel(1, 2,
+                new byte[]{0, (byte) color.getRed()},
+                new byte[]{0, (byte) color.getGreen()},
+                new byte[]{0, (byte) color.getBlue()},
+                new byte[]{0, (byte) 255});
+        var mask = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY, colorModel);
+        var g = mask.createGraphics();
+        g.scale(1.0 / downsample, 1.0 / downsample);
+        g.translate(-cell.getX(), -cell.getY());
+        g.setColor(color);
+        for (var object : inCell) {
+            g.fill(object.getROI().getShape());
+        }
+        g.dispose();
+        return new MaskTile(cell, mask);
+    }
+
+    /**
+     * Gets the central part of a tile that no neighbouring tile's cell covers.
+     * Tiles start at multiples of the tile step, so cells partition the image.
+     */
+    static ImageRegion cell(ImageRegion tile, ExportConfig spec) {
+        int step = TileGrid.tileStep(spec);
+        int margin = (TileGrid.tileExtent(spec) - step) / 2;
+        int x = tile.getX() == 0 ? 0 : tile.getX() + margin;
+        int y = tile.getY() == 0 ? 0 : tile.getY() + margin;
+        int maxX = Math.min(tile.getMaxX(), tile.getX() + margin + step);
+        int maxY = Math.min(tile.getMaxY(), tile.getY() + margin + step);
+        return ImageRegion.createInstance(x, y, Math.max(1, maxX - x), Math.max(1, maxY - y), tile.getZ(), tile.getT());
+    }
+
+    /**
+     * Queued tile with its scheduling priority.
+     */
+    private record TileTask(ImageRegion tile, boolean prefetch, double distance) {
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.overlay;
+
+import qupath.lib.regions.ImageRegion;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Rendered prediction for one tile of the live overlay.
+ *
+ * @param cell the part of the tile (full resolution coordinates) the mask covers; cells of neighbouring
+ *             tiles do not overlap, so overlapping tiles are not painted twice
+ * @param mask the rasterized prediction for the cell, or {@code null} if nothing was predicted
+ */
+public record MaskTile(ImageRegion cell, BufferedImage mask) {
+}
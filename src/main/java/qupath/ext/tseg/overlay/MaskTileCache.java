@@ -0,0 +1,67 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.overlay;
+
+import qupath.lib.regions.ImageRegion;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of rendered overlay tiles, keyed by tile region.
+ */
+public final class MaskTileCache {
+
+    private final Map<ImageRegion, MaskTile> tiles;
+
+    public MaskTileCache(int maxTiles) {
+        this.tiles = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ImageRegion, MaskTile> eldest) {
+                return size() > maxTiles;
+            }
+        };
+    }
+
+    public synchronized boolean contains(ImageRegion tile) {
+        return tiles.containsKey(tile);
+    }
+
+    public synchronized void put(ImageRegion tile, MaskTile mask) {
+        tiles.put(tile, mask);
+    }
+
+    /**
+     * Gets the cached tiles with a mask whose cell intersects the region.
+     */
+    public synchronized List<MaskTile> getIntersecting(ImageRegion region) {
+        List<MaskTile> result = new ArrayList<>();
+        for (var entry : tiles.entrySet()) {
+            var tile = entry.getValue();
+            if (tile.mask() != null && region.intersects(tile.cell())) result.add(tile);
+        }
+        return result;
+    }
+
+    public synchronized void clear() {
+        tiles.clear();
+    }
+}
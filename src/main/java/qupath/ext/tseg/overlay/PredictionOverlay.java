@@ -0,0 +1,131 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.overlay;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import qupath.ext.tseg.inference.io.PredictionImageServer;
+import qupath.lib.gui.viewer.OverlayOptions;
+import qupath.lib.gui.viewer.overlays.AbstractOverlay;
+import qupath.lib.images.ImageData;
+import qupath.lib.regions.ImageRegion;
+import qupath.lib.regions.RegionRequest;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Viewer overlay showing a stored prediction, with pixels at or above a threshold painted in the prediction color.
+ * Tiles are read lazily from the pyramid level closest to the viewer downsample and kept in a small LRU cache.
+ */
+public class PredictionOverlay extends AbstractOverlay {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PredictionOverlay.class);
+    private static final int CACHE_SIZE = 256;
+
+    private final PredictionImageServer server;
+    private final Color color;
+    private final Map<RegionRequest, BufferedImage> tiles = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<RegionRequest, BufferedImage> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+    private IndexColorModel colorModel;
+
+    public PredictionOverlay(OverlayOptions options, PredictionImageServer server, Color color, double threshold) {
+        super(options);
+        this.server = server;
+        this.color = color;
+        setThreshold(threshold);
+    }
+
+    public PredictionImageServer getServer() {
+        return server;
+    }
+
+    /**
+     * Sets the threshold (0-1) at which pixels are shown.
+     */
+    public void setThreshold(double threshold) {
+        int minValue = (int) Math.max(1, Math.min(255, Math.round(threshold * 255)));
+        byte[] r = new byte[256], g = new byte[256], b = new byte[256], a = new byte[256];
+        for (int i = minValue; i < 256; i++) {
+            r[i] = (byte) color.getRed();
+            g[i] = (byte) color.getGreen();
+            b[i] = (byte) color.getBlue();
+            a[i] = (byte) 255;
+        }
+        colorModel = new IndexColorModel(8, 256, r, g, b, a);
+    }
+
+    @Override
+    public void paintOverlay(
+            Graphics2D g2d,
+            ImageRegion imageRegion,
+            double downsampleFactor,
+            ImageData<BufferedImage> imageData,
+            boolean paintCompletely
+    ) {
+        if (!isVisible()) return;
+        double scale = server.getPredictionDownsample();
+        int x = (int) Math.floor(imageRegion.getX() / scale);
+        int y = (int) Math.floor(imageRegion.getY() / scale);
+        int maxX = Math.min(server.getWidth(), (int) Math.ceil(imageRegion.getMaxX() / scale));
+        int maxY = Math.min(server.getHeight(), (int) Math.ceil(imageRegion.getMaxY() / scale));
+        if (maxX <= x || maxY <= y) return;
+
+        var request = RegionRequest.createInstance(
+                server.getPath(), Math.max(1, downsampleFactor / scale), x, y, maxX - x, maxY - y);
+        var g = (Graphics2D) g2d.create();
+        var composite = getAlphaComposite();
+        if (composite != null) g.setComposite(composite);
+        g.scale(scale, scale);
+        try {
+            for (var tile : server.getTileRequestManager().getTileRequests(request)) {
+                var image = getTile(tile.getRegionRequest());
+                g.drawImage(image, tile.getImageX(), tile.getImageY(), tile.getImageWidth(), tile.getImageHeight(), null);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Could not read prediction tile", e);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private BufferedImage getTile(RegionRequest request) throws IOException {
+        BufferedImage tile;
+        synchronized (tiles) {
+            tile = tiles.get(request);
+        }
+        if (tile == null) {
+            tile = server.readRegion(request);
+            synchronized (tiles) {
+                tiles.put(request, tile);
+            }
+        }
+        // Reinterpret the gray values as indices into the threshold color map
+        return new BufferedImage(colorModel, tile.getRaster(), false, null);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.overlay;
+
+import qupath.ext.tseg.inference.TilePlan;
+import qupath.lib.gui.viewer.OverlayOptions;
+import qupath.lib.gui.viewer.overlays.AbstractOverlay;
+import qupath.lib.images.ImageData;
+import qupath.lib.regions.ImageRegion;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Viewer overlay outlining the tiles of a {@link TilePlan}.
+ */
+public class TilePlanOverlay extends AbstractOverlay {
+
+    private static final Color TILE_COLOR = new Color(64, 160, 255);
+
+    private volatile TilePlan plan;
+
+    public TilePlanOverlay(OverlayOptions options) {
+        super(options);
+    }
+
+    /**
+     * Sets the plan to draw, or null to draw nothing.
+     */
+    public void setPlan(TilePlan plan) {
+        this.plan = plan;
+    }
+
+    @Override
+    public void paintOverlay(
+            Graphics2D g2d,
+            ImageRegion imageRegion,
+            double downsampleFactor,
+            ImageData<BufferedImage> imageData,
+            boolean paintCompletely
+    ) {
+        var current = plan;
+        if (!isVisible() || current == null) return;
+        var g = (Graphics2D) g2d.create();
+        var composite = getAlphaComposite();
+        if (composite != null) g.setComposite(composite);
+        g.setColor(TILE_COLOR);
+        g.setStroke(new BasicStroke((float) downsampleFactor));
+        for (var tile : current.grid().tiles()) {
+            if (!imageRegion.intersects(tile)) continue;
+            g.drawRect(tile.getX(), tile.getY(), tile.getWidth(), tile.getHeight());
+        }
+        g.dispose();
+    }
+}
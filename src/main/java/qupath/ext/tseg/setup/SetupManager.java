@@ -22,6 +22,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import qupath.ext.tseg.config.SetupConfig;
 import qupath.ext.tseg.inference.InferenceDirectory;
+import qupath.ext.tseg.inference.InterpreterCache;
 import qupath.lib.gui.prefs.PathPrefs;
 
 import java.io.IOException;
@@ -197,6 +198,18 @@ public class SetupManager {
             return false;
         }
 
+        messageSink.accept("Resolving Python interpreter...");
+        try {
+            InterpreterCache.resolve(InferenceDirectory.DEFAULT);
+        } catch (IOException e) {
+            LOGGER.warn("Could not resolve the Python interpreter", e);
+            messageSink.accept("Python interpreter could not be resolved, inference will start through uv.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            messageSink.accept("ERROR: Setup was interrupted.");
+            return false;
+        }
+
         messageSink.accept("Downloading default models...");
         if (!downloadDefaultModels(messageSink)) {
             messageSink.accept("ERROR: Model download failed.");
@@ -19,36 +19,59 @@
 package qupath.ext.tseg.ui;
 
 import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
 import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
 import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.Spinner;
+import javafx.scene.control.ToggleButton;
 import javafx.scene.layout.VBox;
 import javafx.stage.FileChooser;
 import javafx.stage.Window;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import qupath.ext.tseg.config.PreferenceManager;
 import qupath.ext.tseg.inference.InferenceDirectory;
+import qupath.ext.tseg.inference.InferenceEnvironment;
 import qupath.ext.tseg.inference.InferenceManager;
-import qupath.ext.tseg.inference.io.TileIO;
+import qupath.ext.tseg.inference.InferenceResult;
+import qupath.ext.tseg.inference.TilePlan;
+import qupath.ext.tseg.inference.io.PredictionImageServer;
+import qupath.ext.tseg.inference.io.PredictionStore;
+import qupath.ext.tseg.inference.io.TileStaging;
+import qupath.ext.tseg.overlay.LiveInferenceSession;
+import qupath.ext.tseg.overlay.PredictionOverlay;
+import qupath.ext.tseg.overlay.TilePlanOverlay;
 import qupath.ext.tseg.setup.SetupManager;
 import qupath.ext.tseg.util.Utils;
 import qupath.fx.dialogs.Dialogs;
+import qupath.lib.gui.QuPathGUI;
+import qupath.lib.gui.viewer.QuPathViewer;
+import qupath.lib.images.ImageData;
+import qupath.lib.objects.PathObject;
+import qupath.lib.objects.hierarchy.events.PathObjectSelectionListener;
 import qupath.lib.scripting.QP;
 
+import java.awt.Color;
+import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
-import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class ExtensionInterface extends VBox {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ExtensionInterface.class);
+    private static final Color PREDICTION_COLOR = new Color(255, 64, 64);
     private static final ResourceBundle STRING_BUNDLE = ResourceBundle.getBundle(
             "qupath.ext.tseg.ui.strings"
     );
@@ -65,6 +88,40 @@ public class ExtensionInterface extends VBox {
     private Button runButton;
     @FXML
     private ProgressIndicator statusIndicator;
+    @FXML
+    private ToggleButton liveOverlayToggle;
+    @FXML
+    private ToggleButton savedPredictionToggle;
+    @FXML
+    private Label planLabel;
+    @FXML
+    private Label reportLabel;
+
+    private LiveInferenceSession liveSession;
+    private QuPathViewer predictionViewer;
+    private PredictionOverlay predictionOverlay;
+    private final ExecutorService planExecutor = Executors.newSingleThreadExecutor(r -> {
+        var thread = new Thread(r, "tseg-plan");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final PathObjectSelectionListener planSelectionListener =
+            (selected, previous, allSelected) -> Platform.runLater(this::updatePlan);
+    private final ChangeListener<ImageData<BufferedImage>> planImageListener = (obs, oldValue, newValue) -> {
+        if (oldValue != null) oldValue.getHierarchy().getSelectionModel().removePathObjectSelectionListener(planSelectionListener);
+        if (newValue != null) newValue.getHierarchy().getSelectionModel().addPathObjectSelectionListener(planSelectionListener);
+        updatePlan();
+    };
+    private TilePlan tilePlan;
+    private long planRequest;
+    private QuPathViewer planViewer;
+    private TilePlanOverlay planOverlay;
+    private final ChangeListener<Number> thresholdListener = (obs, oldValue, newValue) -> {
+        if (predictionOverlay != null) {
+            predictionOverlay.setThreshold(newValue.doubleValue());
+            predictionViewer.repaint();
+        }
+    };
 
     /**
      * Creates an instance of the extension interface.
@@ -99,6 +156,19 @@ public class ExtensionInterface extends VBox {
         UIManager.setDefaultTargetMPP(targetMPPSpinner);
         UIManager.setDefaultTileSize(tileSizeSpinner);
         UIManager.setDefaultConfidence(confidenceSpinner);
+        TileStaging.DEFAULT.setTargetMPP(targetMPPSpinner.getValue());
+        targetMPPSpinner.valueProperty().addListener((obs, oldValue, newValue) -> {
+            if (newValue != null) TileStaging.DEFAULT.setTargetMPP(newValue);
+            updatePlan();
+        });
+        PreferenceManager.TILE_SIZE.addListener((obs, oldValue, newValue) -> updatePlan());
+        PreferenceManager.TILE_OVERLAP.addListener((obs, oldValue, newValue) -> updatePlan());
+        PreferenceManager.SHOW_TILE_PLAN.addListener((obs, oldValue, newValue) -> updatePlanOverlay());
+        var qupath = QuPathGUI.getInstance();
+        if (qupath != null) {
+            qupath.imageDataProperty().addListener(planImageListener);
+            planImageListener.changed(qupath.imageDataProperty(), null, qupath.getImageData());
+        }
 
         if (!SetupManager.hasCompletedSetup()) {
             runButton.setDisable(true);
@@ -128,12 +198,17 @@ public class ExtensionInterface extends VBox {
 
     /**
      * Runs the inference process in a background thread.
+     * If several annotations are selected, they are inferred together and tiles they share are inferred once.
      */
     @FXML
     public void runInference() {
+        var imageData = QP.getCurrentImageData();
         var selectedArea = QP.getSelectedObject();
+        var selectedAreas = selectedAnnotations(QP.getSelectedObjects());
         var targetMPP = targetMPPSpinner.getValue();
         var confidence = confidenceSpinner.getValue();
+        var modelPath = UIManager.getModelPath(modelComboBox);
+        var plan = tilePlan;
 
         if (selectedArea == null) {
             Dialogs.showWarningNotification("TSEG Warning", "Please select an area.");
@@ -143,38 +218,38 @@ public class ExtensionInterface extends VBox {
         runButton.setDisable(true);
         runButton.setText("");
         statusIndicator.setVisible(true);
+        reportLabel.setText("");
 
-        Task<Path> task = new Task<>() {
+        Task<InferenceResult> task = new Task<>() {
             @Override
-            protected Path call() throws Exception {
-                return InferenceManager.runInference(UIManager.getModelPath(modelComboBox), targetMPP, confidence);
+            protected InferenceResult call() throws Exception {
+                if (selectedAreas.size() > 1) {
+                    return InferenceManager.runInference(imageData, selectedAreas, modelPath, targetMPP, confidence,
+                            plan, InferenceEnvironment.DEFAULT);
+                }
+                return InferenceManager.runInference(imageData, selectedArea, modelPath, targetMPP, confidence, plan);
             }
         };
 
         task.setOnSucceeded(e -> {
-            Path polygons = task.getValue();
-            try {
-                TileIO.importGeoJson(selectedArea, polygons);
-                new Thread(() -> {
-                    try {
-                        Utils.clearDir(InferenceDirectory.DEFAULT.roi());
-                        Utils.clearDir(InferenceDirectory.DEFAULT.output());
-                    } catch (Exception ex) {
-                        LOGGER.error("Error clearing inference directories", ex);
-                    }
-                }, "tseg-cleanup").start();
-
-                LOGGER.info("Imported polygons from {}.", polygons);
-                UIManager.resetStatusAfterDelay(runButton, statusIndicator);
-            } catch (Exception ex) {
-                LOGGER.error("Import failed.", ex);
-                UIManager.resetStatusAfterDelay(runButton, statusIndicator);
-            }
+            Dialogs.showPlainNotification("TSEG Inference", task.getValue().message());
+            reportLabel.setText(task.getValue().report().summary());
+            updatePlan();
+            new Thread(() -> {
+                try {
+                    Utils.clearDir(InferenceDirectory.DEFAULT.roi());
+                    Utils.clearDir(InferenceDirectory.DEFAULT.output());
+                } catch (Exception ex) {
+                    LOGGER.error("Error clearing inference directories", ex);
+                }
+            }, "tseg-cleanup").start();
+            UIManager.resetStatusAfterDelay(runButton, statusIndicator);
         });
 
         task.setOnFailed(e -> {
             LOGGER.error("Inference failed.", task.getException());
-            Dialogs.showErrorNotification("TSEG Error", "Inference failed. Check log.");
+            String message = task.getException().getMessage();
+            Dialogs.showErrorNotification("TSEG Error", message == null ? "Inference failed. Check log." : message);
             UIManager.resetStatusAfterDelay(runButton, statusIndicator);
         });
 
@@ -183,6 +258,141 @@ public class ExtensionInterface extends VBox {
         t.start();
     }
 
+    /**
+     * Plans the tiles of the selected annotations in the background and shows the plan once it is ready.
+     * Plans of earlier selections that finish later are discarded.
+     */
+    private void updatePlan() {
+        var qupath = QuPathGUI.getInstance();
+        var imageData = qupath == null ? null : qupath.getImageData();
+        var selected = imageData == null
+                ? List.<PathObject>of()
+                : selectedAnnotations(imageData.getHierarchy().getSelectionModel().getSelectedObjects());
+        var targetMPP = targetMPPSpinner.getValue();
+        long request = ++planRequest;
+        if (selected.isEmpty() || targetMPP == null || targetMPP <= 0) {
+            showPlan(null);
+            return;
+        }
+        planExecutor.submit(() -> {
+            TilePlan plan = null;
+            try {
+                plan = InferenceManager.plan(imageData, InferenceManager.unionROI(selected), targetMPP);
+            } catch (RuntimeException e) {
+                LOGGER.debug("Could not plan tiles for the selection", e);
+            }
+            var result = plan;
+            Platform.runLater(() -> {
+                if (request == planRequest) showPlan(result);
+            });
+        });
+    }
+
+    private static List<PathObject> selectedAnnotations(Collection<PathObject> selected) {
+        return selected.stream().filter(o -> o.isAnnotation() && o.hasROI()).toList();
+    }
+
+    private void showPlan(TilePlan plan) {
+        tilePlan = plan;
+        planLabel.setText(plan == null ? "" : plan.summary());
+        updatePlanOverlay();
+    }
+
+    /**
+     * Draws the current plan in the viewer if enabled in the preferences, replacing the previous drawing.
+     */
+    private void updatePlanOverlay() {
+        if (planOverlay != null) {
+            planViewer.getCustomOverlayLayers().remove(planOverlay);
+            planOverlay = null;
+            planViewer = null;
+        }
+        if (!PreferenceManager.SHOW_TILE_PLAN.get() || tilePlan == null) return;
+
+        var qupath = QuPathGUI.getInstance();
+        var viewer = qupath == null ? null : qupath.getViewer();
+        if (viewer == null) return;
+        planOverlay = new TilePlanOverlay(viewer.getOverlayOptions());
+        planOverlay.setPlan(tilePlan);
+        planViewer = viewer;
+        viewer.getCustomOverlayLayers().add(planOverlay);
+    }
+
+    /**
+     * Starts or stops live inference of the tiles visible in the current viewer.
+     */
+    @FXML
+    public void toggleLiveOverlay() {
+        if (liveSession != null) {
+            liveSession.stop();
+            liveSession = null;
+        }
+        if (!liveOverlayToggle.isSelected()) return;
+
+        var qupath = QuPathGUI.getInstance();
+        var viewer = qupath == null ? null : qupath.getViewer();
+        if (viewer == null || viewer.getImageData() == null) {
+            Dialogs.showWarningNotification("TSEG Warning", "Please open an image.");
+            liveOverlayToggle.setSelected(false);
+            return;
+        }
+        liveSession = LiveInferenceSession.start(
+                viewer,
+                UIManager.getModelPath(modelComboBox),
+                targetMPPSpinner.getValue(),
+                confidenceSpinner.getValue(),
+                e -> {
+                    liveSession = null;
+                    liveOverlayToggle.setSelected(false);
+                    Dialogs.showErrorNotification("TSEG Error",
+                            e.getMessage() == null ? "Live inference failed. Check log." : e.getMessage());
+                }
+        );
+    }
+
+    /**
+     * Shows or hides the prediction stored with the project entry of the current image.
+     */
+    @FXML
+    public void toggleSavedPrediction() {
+        if (predictionOverlay != null) {
+            PreferenceManager.PREDICTION_THRESHOLD.removeListener(thresholdListener);
+            predictionViewer.getCustomOverlayLayers().remove(predictionOverlay);
+            try {
+                predictionOverlay.getServer().close();
+            } catch (Exception e) {
+                LOGGER.warn("Could not close prediction server", e);
+            }
+            predictionOverlay = null;
+            predictionViewer = null;
+        }
+        if (!savedPredictionToggle.isSelected()) return;
+
+        var qupath = QuPathGUI.getInstance();
+        var viewer = qupath == null ? null : qupath.getViewer();
+        var project = qupath == null ? null : qupath.getProject();
+        var entry = project == null || viewer == null || viewer.getImageData() == null
+                ? null
+                : project.getEntry(viewer.getImageData());
+        try {
+            var server = entry == null ? null : PredictionImageServer.open(PredictionStore.directory(entry));
+            if (server == null) {
+                Dialogs.showWarningNotification("TSEG Warning", "No saved prediction for the current image.");
+                savedPredictionToggle.setSelected(false);
+                return;
+            }
+            predictionViewer = viewer;
+            predictionOverlay = new PredictionOverlay(viewer.getOverlayOptions(), server,
+                    PREDICTION_COLOR, PreferenceManager.PREDICTION_THRESHOLD.get());
+            viewer.getCustomOverlayLayers().add(predictionOverlay);
+            PreferenceManager.PREDICTION_THRESHOLD.addListener(thresholdListener);
+        } catch (IOException e) {
+            LOGGER.error("Could not open saved prediction", e);
+            Dialogs.showErrorNotification("TSEG Error", "Could not open saved prediction.");
+            savedPredictionToggle.setSelected(false);
+        }
+    }
+
     /**
      * Opens a file chooser to add a new model to the "models" directory.
      */
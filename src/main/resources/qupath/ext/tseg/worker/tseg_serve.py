@@ -0,0 +1,102 @@
+"""Runs TSEG inference jobs in a long-lived interpreter that keeps the model loaded.
+
+Usage: python tseg_serve.py <path to infer.py>
+
+The inference script is imported as a module and must define the load-once/infer-many entry point:
+
+    load(model_path) -> model
+        Loads the model file, for example into an ONNX Runtime session.
+    infer(model, argv) -> exit code
+        Runs one job with the command line arguments of the script, printing its JSON result to standard output
+        as a command line run does. None counts as success.
+
+The first line written is {"ready": true}, or {"ready": false, "error": text} followed by exit if the script
+cannot be imported or does not define the entry point; the extension then starts one process per job instead.
+After that, each line read from standard input is a JSON job {"model": path, "args": [...]} and one JSON line
+{"exit": code, "stdout": text} is written back per job. Only the model of the last job is kept: it is loaded again
+when a job names another model file, or when the file was replaced.
+"""
+
+import contextlib
+import importlib.util
+import io
+import json
+import os
+import sys
+import traceback
+
+
+def import_script(path):
+    spec = importlib.util.spec_from_file_location("infer", path)
+    module = importlib.util.module_from_spec(spec)
+    sys.modules["infer"] = module
+    spec.loader.exec_module(module)
+    for name in ("load", "infer"):
+        if not callable(getattr(module, name, None)):
+            raise AttributeError(f"{os.path.basename(path)} does not define {name}()")
+    return module
+
+
+def model_key(path):
+    path = os.path.abspath(path)
+    stat = os.stat(path)
+    return path, stat.st_size, stat.st_mtime_ns
+
+
+def exit_code(code):
+    if code is None:
+        return 0
+    return code if isinstance(code, int) else 1
+
+
+def write(replies, message):
+    replies.write(json.dumps(message) + "\n")
+    replies.flush()
+
+
+def main():
+    script = os.path.abspath(sys.argv[1])
+    sys.path.insert(0, os.path.dirname(script))
+    # Replies get their own descriptor; anything else written to standard output, also by native code,
+    # goes to standard error and cannot break the protocol
+    replies = os.fdopen(os.dup(1), "w", encoding="utf-8")
+    os.dup2(2, 1)
+
+    try:
+        sys.argv = [script]
+        module = import_script(script)
+    except BaseException as e:
+        traceback.print_exc()
+        write(replies, {"ready": False, "error": f"{type(e).__name__}: {e}"})
+        return
+    write(replies, {"ready": True})
+
+    loaded_key = None
+    model = None
+    for line in io.TextIOWrapper(sys.stdin.buffer, encoding="utf-8"):
+        if not line.strip():
+            continue
+        job = json.loads(line)
+        captured = io.StringIO()
+        code = 0
+        sys.argv = [script] + job["args"]
+        try:
+            key = model_key(job["model"])
+            if key != loaded_key:
+                # Drop the previous model before loading the next, so two are never held at once
+                model = loaded_key = None
+                model = module.load(job["model"])
+                loaded_key = key
+            with contextlib.redirect_stdout(captured):
+                code = exit_code(module.infer(model, job["args"]))
+        except SystemExit as e:
+            code = exit_code(e.code)
+        except Exception:
+            traceback.print_exc()
+            code = 1
+        sys.stderr.flush()
+        write(replies, {"exit": code, "stdout": captured.getvalue()})
+
+
+if __name__ == "__main__":
+    main()
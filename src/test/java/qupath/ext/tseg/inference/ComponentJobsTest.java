@@ -0,0 +1,113 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference;
+
+import org.junit.jupiter.api.Test;
+import qupath.ext.tseg.config.ExportConfig;
+import qupath.ext.tseg.config.InferenceConfig;
+import qupath.ext.tseg.inference.tile.ChunkPlan;
+import qupath.ext.tseg.inference.tile.TileBlocks;
+import qupath.ext.tseg.inference.tile.TileGrid;
+import qupath.lib.regions.ImagePlane;
+import qupath.lib.regions.ImageRegion;
+import qupath.lib.roi.ROIs;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that separate fragments of a job are inferred side by side.
+ */
+class ComponentJobsTest {
+
+    private static final InferenceConfig CONFIG = InferenceConfig.DEFAULT;
+
+    @Test
+    void twoFragmentsRunAsConcurrentJobsUnderTheDefaultConfig() throws Exception {
+        var spec = new ExportConfig(ROIs.createRectangleROI(0, 0, 100_000, 100_000, ImagePlane.getDefaultPlane()),
+                CONFIG.tileTargetMPP(), CONFIG.tileTargetMPP(), CONFIG.tileSize(), CONFIG.tileOverlap(),
+                "." + CONFIG.tileImageFormat());
+        int step = TileGrid.tileStep(spec);
+        int extent = TileGrid.tileExtent(spec);
+        // Two fragments of 10 x 10 tiles, far apart; each is larger than a default streaming block
+        List<ImageRegion> tiles = new ArrayList<>();
+        for (int origin : new int[]{0, 100 * step}) {
+            for (int y = 0; y < 10; y++) {
+                for (int x = 0; x < 10; x++) {
+                    tiles.add(ImageRegion.createInstance(origin + x * step, y * step, extent, extent, 0, 0));
+                }
+            }
+        }
+        var components = TileBlocks.components(tiles, spec);
+        assertEquals(2, components.size());
+        int workers = ComponentJobs.workers(CONFIG.componentWorkers(), components.size());
+        assertEquals(2, workers);
+        // Streaming blocks no longer decide whether fragments run side by side
+        var chunkPlan = ChunkPlan.of(spec, tiles.size(), ((long) CONFIG.diskBudgetMB() << 20) / workers,
+                ((long) CONFIG.memoryBudgetMB() << 20) / workers, CONFIG.streamingBlockSize());
+        assertTrue(chunkPlan.blockTiles() >= 1);
+
+        // Each job waits for the other one, which only completes if both run at once
+        var barrier = new CyclicBarrier(components.size());
+        Set<Integer> slots = ConcurrentHashMap.newKeySet();
+        var results = ComponentJobs.run(components, workers, (slot, component) -> {
+            slots.add(slot);
+            try {
+                barrier.await(10, TimeUnit.SECONDS);
+            } catch (BrokenBarrierException | TimeoutException e) {
+                throw new IOException("Components did not run concurrently", e);
+            }
+            return List.of(component.get(0));
+        });
+
+        assertEquals(Set.of(0, 1), slots);
+        assertEquals(List.of(components.get(0).get(0), components.get(1).get(0)), results);
+    }
+
+    @Test
+    void workersAreLimitedByTheComponents() {
+        assertEquals(1, ComponentJobs.workers(4, 1));
+        assertEquals(3, ComponentJobs.workers(4, 3));
+        assertEquals(2, ComponentJobs.workers(2, 5));
+        assertEquals(1, ComponentJobs.workers(0, 5));
+    }
+
+    @Test
+    void aFailedComponentFailsTheJob() {
+        var components = List.of(
+                List.of(ImageRegion.createInstance(0, 0, 10, 10, 0, 0)),
+                List.of(ImageRegion.createInstance(100, 0, 10, 10, 0, 0)));
+        var e = assertThrows(IOException.class, () -> ComponentJobs.run(components, 2, (slot, component) -> {
+            if (component.get(0).getX() == 100) throw new IOException("worker failed");
+            return component;
+        }));
+        assertEquals("worker failed", e.getMessage());
+    }
+}
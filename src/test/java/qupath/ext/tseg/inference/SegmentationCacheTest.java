@@ -0,0 +1,76 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Tests that cached predictions are only reused for the same model file.
+ */
+class SegmentationCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void sameModelFileGivesEqualSettings() throws IOException {
+        var model = Files.writeString(directory.resolve("model.onnx"), "weights");
+        assertEquals(settings(model), settings(directory.resolve(".").resolve("model.onnx")));
+    }
+
+    @Test
+    void replacedModelFileGivesOtherSettings() throws IOException {
+        var model = Files.writeString(directory.resolve("model.onnx"), "weights");
+        var before = settings(model);
+        Files.writeString(model, "retrained weights");
+        assertNotEquals(before, settings(model));
+    }
+
+    @Test
+    void modelRewrittenWithTheSameSizeGivesOtherSettings() throws IOException {
+        var model = Files.writeString(directory.resolve("model.onnx"), "weights");
+        Files.setLastModifiedTime(model, FileTime.fromMillis(1_000_000));
+        var before = settings(model);
+        Files.writeString(model, "WEIGHTS");
+        Files.setLastModifiedTime(model, FileTime.fromMillis(2_000_000));
+        assertNotEquals(before, settings(model));
+    }
+
+    @Test
+    void sameModelNameInAnotherDirectoryGivesOtherSettings() throws IOException {
+        var model = Files.writeString(directory.resolve("model.onnx"), "weights");
+        var other = Files.writeString(Files.createDirectory(directory.resolve("other")).resolve("model.onnx"),
+                "weights");
+        Files.setLastModifiedTime(other, Files.getLastModifiedTime(model));
+        assertNotEquals(settings(model), settings(other));
+    }
+
+    private static SegmentationCache.Settings settings(Path model) throws IOException {
+        return SegmentationCache.Settings.of("image.svs", model, 8, 512, 64, 0.5);
+    }
+}
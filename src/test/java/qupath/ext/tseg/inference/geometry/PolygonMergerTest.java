@@ -0,0 +1,100 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference.geometry;
+
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests merging per-tile polygons into result polygons.
+ */
+class PolygonMergerTest {
+
+    private static final GeometryFactory FACTORY = new GeometryFactory();
+
+    @Test
+    void overlappingPolygonsAreUnioned() {
+        var merged = PolygonMerger.merge(List.of(square(0, 0, 10), square(5, 0, 10)), 0);
+        assertEquals(List.of(150.0), areas(merged));
+    }
+
+    @Test
+    void touchingPolygonsAreUnioned() {
+        var merged = PolygonMerger.merge(List.of(square(0, 0, 10), square(10, 0, 10)), 0);
+        assertEquals(List.of(200.0), areas(merged));
+    }
+
+    @Test
+    void polygonsConnectedThroughANeighbourAreUnioned() {
+        var merged = PolygonMerger.merge(List.of(square(0, 0, 10), square(16, 0, 10), square(8, 0, 10)), 0);
+        assertEquals(List.of(260.0), areas(merged));
+    }
+
+    @Test
+    void separatePolygonsStaySeparate() {
+        var merged = PolygonMerger.merge(List.of(square(0, 0, 10), square(20, 0, 5), square(0, 20, 10)), 0);
+        assertEquals(List.of(25.0, 100.0, 100.0), areas(merged));
+    }
+
+    @Test
+    void polygonsBelowTheMinimumAreaAreDropped() {
+        var merged = PolygonMerger.merge(List.of(square(0, 0, 10), square(20, 0, 2)), 5);
+        assertEquals(List.of(100.0), areas(merged));
+    }
+
+    @Test
+    void invalidPolygonsAreFixed() {
+        var bowtie = FACTORY.createPolygon(new Coordinate[] {
+                new Coordinate(0, 0), new Coordinate(10, 10), new Coordinate(10, 0),
+                new Coordinate(0, 10), new Coordinate(0, 0)
+        });
+        var merged = PolygonMerger.merge(List.of(bowtie), 0);
+        assertEquals(List.of(25.0, 25.0), areas(merged));
+        assertTrue(merged.stream().allMatch(Geometry::isValid));
+    }
+
+    @Test
+    void resultDoesNotDependOnThePool() {
+        List<Geometry> squares = List.of(square(0, 0, 10), square(5, 5, 10), square(30, 30, 10));
+        var pool = new ForkJoinPool(1);
+        try {
+            assertEquals(areas(PolygonMerger.merge(squares, 0)), areas(PolygonMerger.merge(squares, 0, pool)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static Geometry square(double x, double y, double size) {
+        return FACTORY.toGeometry(new Envelope(x, x + size, y, y + size));
+    }
+
+    private static List<Double> areas(List<Polygon> polygons) {
+        return polygons.stream().map(Polygon::getArea).sorted().toList();
+    }
+}
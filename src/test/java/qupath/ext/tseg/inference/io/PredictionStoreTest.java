@@ -0,0 +1,121 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import qupath.lib.regions.ImagePlane;
+import qupath.lib.roi.ROIs;
+import qupath.lib.roi.interfaces.ROI;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Tests the levels of the stored prediction pyramid and how coarser levels average level 0.
+ */
+class PredictionStoreTest {
+
+    private static final GeometryFactory FACTORY = new GeometryFactory();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void levelsAreAddedUntilOneTileCoversTheImage() throws IOException {
+        write(4096, 1024, 2, rectangle(0, 0, 64, 64), roi(0, 0, 64, 64));
+        var metadata = PredictionStore.readMetadata(directory);
+        assertEquals(2048, metadata.width());
+        assertEquals(512, metadata.height());
+        assertEquals(0.5, metadata.pixelSize(), 1e-12);
+        assertArrayEquals(new double[] {1, 4}, metadata.levelDownsamples(), 0);
+    }
+
+    @Test
+    void coarserLevelsHoldThePredictedFraction() throws IOException {
+        write(4096, 4096, 1, rectangle(0, 0, 8, 16), roi(0, 0, 512, 512));
+        assertArrayEquals(new double[] {1, 4, 16}, PredictionStore.readMetadata(directory).levelDownsamples(), 0);
+
+        var level0 = tile(0);
+        assertEquals(255, level0.getRaster().getSample(7, 15, 0));
+        assertEquals(0, level0.getRaster().getSample(8, 15, 0));
+        assertEquals(0, level0.getRaster().getSample(7, 16, 0));
+
+        var level1 = tile(1);
+        assertEquals(255, level1.getRaster().getSample(1, 3, 0));
+        assertEquals(0, level1.getRaster().getSample(2, 3, 0));
+
+        assertEquals(128, tile(2).getRaster().getSample(0, 0, 0));
+    }
+
+    @Test
+    void tilesWithoutPredictionAreNotWritten() throws IOException {
+        write(2048, 2048, 1, rectangle(0, 0, 8, 8), roi(0, 0, 1024, 512));
+        assertFalse(Files.exists(PredictionStore.tileFile(directory, 0, 512, 0)));
+    }
+
+    @Test
+    void pixelsOutsideTheRoiKeepEarlierPredictions() throws IOException {
+        write(4096, 4096, 1, rectangle(0, 0, 64, 64), roi(0, 0, 64, 64));
+        write(4096, 4096, 1, rectangle(1000, 1000, 8, 8), roi(40, 0, 24, 64));
+
+        var level0 = tile(0);
+        assertEquals(255, level0.getRaster().getSample(39, 0, 0));
+        assertEquals(0, level0.getRaster().getSample(40, 0, 0));
+
+        var level2 = tile(2);
+        assertEquals(255, level2.getRaster().getSample(1, 0, 0));
+        assertEquals(128, level2.getRaster().getSample(2, 0, 0));
+        assertEquals(0, level2.getRaster().getSample(3, 0, 0));
+    }
+
+    @Test
+    void pyramidAtAnotherResolutionIsReplaced() throws IOException {
+        write(4096, 4096, 1, rectangle(0, 0, 64, 64), roi(0, 0, 64, 64));
+        write(4096, 4096, 2, rectangle(0, 0, 64, 64), roi(0, 0, 64, 64));
+        assertArrayEquals(new double[] {1, 4}, PredictionStore.readMetadata(directory).levelDownsamples(), 0);
+        assertFalse(Files.exists(PredictionStore.tileFile(directory, 2, 0, 0)));
+    }
+
+    private void write(int width, int height, double downsample, Geometry prediction, ROI roi) throws IOException {
+        PredictionStore.write(directory, width, height, downsample, 0.25, "model", prediction, roi, null);
+    }
+
+    private BufferedImage tile(int level) throws IOException {
+        return ImageIO.read(PredictionStore.tileFile(directory, level, 0, 0).toFile());
+    }
+
+    private static Geometry rectangle(double x, double y, double width, double height) {
+        return FACTORY.toGeometry(new Envelope(x, x + width, y, y + height));
+    }
+
+    private static ROI roi(double x, double y, double width, double height) {
+        return ROIs.createRectangleROI(x, y, width, height, ImagePlane.getDefaultPlane());
+    }
+}
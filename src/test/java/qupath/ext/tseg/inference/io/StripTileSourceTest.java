@@ -0,0 +1,136 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference.io;
+
+import org.junit.jupiter.api.Test;
+import qupath.ext.tseg.config.ExportConfig;
+import qupath.ext.tseg.inference.tile.TileGrid;
+import qupath.ext.tseg.inference.tile.TileReadPlan;
+import qupath.lib.images.servers.WrappedBufferedImageServer;
+import qupath.lib.regions.ImagePlane;
+import qupath.lib.regions.ImageRegion;
+import qupath.lib.roi.ROIs;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests that tiles sliced out of shared strips match tiles read directly.
+ */
+class StripTileSourceTest {
+
+    private static final int WIDTH = 200;
+    private static final int HEIGHT = 150;
+
+    private final BufferedImage image = pattern();
+    private final WrappedBufferedImageServer server = new WrappedBufferedImageServer("pattern", image);
+
+    @Test
+    void tilesAtTheLevelResolutionMatchTheImage() throws IOException {
+        var spec = spec(1, 64);
+        var tiles = grid(spec);
+        try (var source = new StripTileSource(server, spec, plan(1))) {
+            for (var tile : source.order(tiles)) {
+                var read = source.read(tile);
+                assertArrayEquals(pixels(crop(tile)), pixels(read), "Tile " + tile);
+                source.release(read);
+            }
+            assertEquals(HEIGHT / TileGrid.tileStep(spec) + 1, source.stripReads());
+        }
+    }
+
+    @Test
+    void resampledTilesMatchResamplingTheImage() throws IOException {
+        var spec = spec(2, 32);
+        var tiles = grid(spec);
+        try (var source = new StripTileSource(server, spec, plan(2))) {
+            for (var tile : source.order(tiles)) {
+                var read = source.read(tile);
+                var expected = AreaAverage.resample(crop(tile),
+                        TileSource.scaledSize(tile.getWidth(), 2), TileSource.scaledSize(tile.getHeight(), 2));
+                assertArrayEquals(pixels(expected), pixels(read), "Tile " + tile);
+                source.release(read);
+            }
+            assertEquals(HEIGHT / TileGrid.tileStep(spec) + 1, source.stripReads());
+        }
+    }
+
+    @Test
+    void orderGroupsTilesByChunkAndBandKeepingTheGivenOrder() {
+        var spec = spec(1, 64);
+        int chunk = StripTileSource.CHUNK_TILES * TileGrid.tileStep(spec);
+        var tiles = List.of(
+                tile(chunk, 48), tile(0, 48), tile(chunk + 48, 0), tile(48, 0), tile(chunk, 0), tile(0, 0));
+        var order = new StripTileSource(server, spec, plan(1)).order(tiles);
+        assertEquals(List.of(
+                tile(chunk + 48, 0), tile(chunk, 0), tile(chunk, 48), tile(48, 0), tile(0, 0), tile(0, 48)), order);
+    }
+
+    private static ExportConfig spec(double downsample, int tileSize) {
+        var roi = ROIs.createRectangleROI(0, 0, WIDTH, HEIGHT, ImagePlane.getDefaultPlane());
+        return new ExportConfig(roi, downsample, 1, tileSize, 0.25, ".png");
+    }
+
+    private static TileReadPlan plan(double scale) {
+        return new TileReadPlan(0, 1, scale, 256, 256, 4, 1, 1);
+    }
+
+    private static List<ImageRegion> grid(ExportConfig spec) {
+        int step = TileGrid.tileStep(spec);
+        int extent = TileGrid.tileExtent(spec);
+        List<ImageRegion> tiles = new ArrayList<>();
+        for (int y = 0; y < HEIGHT; y += step) {
+            for (int x = 0; x < WIDTH; x += step) {
+                tiles.add(ImageRegion.createInstance(x, y, Math.min(extent, WIDTH - x), Math.min(extent, HEIGHT - y), 0, 0));
+            }
+        }
+        return tiles;
+    }
+
+    private static ImageRegion tile(int x, int y) {
+        return ImageRegion.createInstance(x, y, 64, 64, 0, 0);
+    }
+
+    private static BufferedImage pattern() {
+        var image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                image.setRGB(x, y, x << 16 | y << 8 | (x * 7 + y * 3) & 0xff);
+            }
+        }
+        return image;
+    }
+
+    private BufferedImage crop(ImageRegion tile) {
+        var crop = new BufferedImage(tile.getWidth(), tile.getHeight(), BufferedImage.TYPE_INT_RGB);
+        var g = crop.createGraphics();
+        g.drawImage(image.getSubimage(tile.getX(), tile.getY(), tile.getWidth(), tile.getHeight()), 0, 0, null);
+        g.dispose();
+        return crop;
+    }
+
+    private static int[] pixels(BufferedImage image) {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference.tile;
+
+import org.junit.jupiter.api.Test;
+import qupath.ext.tseg.config.ExportConfig;
+import qupath.lib.regions.ImagePlane;
+import qupath.lib.roi.ROIs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the block sizes planned for disk and memory budgets.
+ */
+class ChunkPlanTest {
+
+    private static final long TILE_DISK = 100 * 100 * 3;
+    private static final long TILE_MEMORY = 100 * 100 * 16;
+
+    @Test
+    void jobWithinTheBudgetsKeepsThePreferredBlockSize() {
+        var plan = ChunkPlan.of(spec(".png"), 10, 10 * TILE_DISK, 10 * TILE_MEMORY, 8);
+        assertEquals(new ChunkPlan(10, 10 * 100 * 100, 10 * TILE_DISK, 10 * TILE_MEMORY, 8, false), plan);
+        assertEquals(0, ChunkPlan.of(spec(".png"), 10, 10 * TILE_DISK, 10 * TILE_MEMORY, 0).blockTiles());
+    }
+
+    @Test
+    void diskBudgetHoldsTwoBlocksAtOnce() {
+        var plan = ChunkPlan.of(spec(".png"), 100, 18 * TILE_DISK, Long.MAX_VALUE, 0);
+        assertEquals(3, plan.blockTiles());
+        assertTrue(plan.budgeted());
+    }
+
+    @Test
+    void memoryBudgetHoldsOneBlock() {
+        var plan = ChunkPlan.of(spec(".png"), 100, Long.MAX_VALUE, 16 * TILE_MEMORY, 0);
+        assertEquals(4, plan.blockTiles());
+        assertTrue(plan.budgeted());
+    }
+
+    @Test
+    void smallerPreferredBlockSizeIsKeptOverBudget() {
+        var plan = ChunkPlan.of(spec(".png"), 100, Long.MAX_VALUE, 16 * TILE_MEMORY, 2);
+        assertEquals(2, plan.blockTiles());
+        assertFalse(plan.budgeted());
+        assertEquals(4, ChunkPlan.of(spec(".png"), 100, Long.MAX_VALUE, 16 * TILE_MEMORY, 8).blockTiles());
+    }
+
+    @Test
+    void blocksHoldAtLeastOneTile() {
+        assertEquals(1, ChunkPlan.of(spec(".png"), 100, 1, 1, 0).blockTiles());
+    }
+
+    @Test
+    void jpegTilesTakeAQuarterOfTheDiskSpace() {
+        assertEquals(TILE_DISK, ChunkPlan.diskBytesPerTile(spec(".png")));
+        assertEquals(TILE_DISK / 4, ChunkPlan.diskBytesPerTile(spec(".jpg")));
+        assertEquals(TILE_DISK / 4, ChunkPlan.diskBytesPerTile(spec(".JPEG")));
+    }
+
+    private static ExportConfig spec(String extension) {
+        var roi = ROIs.createRectangleROI(0, 0, 1000, 1000, ImagePlane.getDefaultPlane());
+        return new ExportConfig(roi, 1, 1, 100, 0.25, extension);
+    }
+}
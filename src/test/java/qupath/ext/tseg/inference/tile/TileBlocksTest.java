@@ -0,0 +1,107 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference.tile;
+
+import org.junit.jupiter.api.Test;
+import qupath.ext.tseg.config.ExportConfig;
+import qupath.lib.regions.ImagePlane;
+import qupath.lib.regions.ImageRegion;
+import qupath.lib.roi.ROIs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests grouping grid tiles into blocks.
+ */
+class TileBlocksTest {
+
+    private static final ExportConfig SPEC = new ExportConfig(
+            ROIs.createRectangleROI(0, 0, 800, 800, ImagePlane.getDefaultPlane()), 1, 1, 100, 0, ".png");
+
+    @Test
+    void centerOutSplitsTheGridIntoSquareBlocks() {
+        var blocks = TileBlocks.centerOut(grid(0, 0, 4, 3), SPEC, 2, 0, 0);
+        assertEquals(List.of(4, 2, 4, 2), blocks.stream().map(List::size).toList());
+        for (var block : blocks) {
+            var bounds = TileGrid.bounds(block);
+            assertEquals(bounds.getX() / 200, (bounds.getMaxX() - 1) / 200);
+            assertEquals(bounds.getY() / 200, (bounds.getMaxY() - 1) / 200);
+        }
+    }
+
+    @Test
+    void centerOutStartsWithTheBlockNearestTheCentre() {
+        var blocks = TileBlocks.centerOut(grid(0, 0, 4, 4), SPEC, 2, 390, 10);
+        assertEquals(ImageRegion.createInstance(200, 0, 200, 200, 0, 0), TileGrid.bounds(blocks.get(0)));
+        assertEquals(ImageRegion.createInstance(0, 200, 200, 200, 0, 0), TileGrid.bounds(blocks.get(3)));
+    }
+
+    @Test
+    void centerOutKeepsAllTilesInOneBlockWithoutABlockSize() {
+        var tiles = grid(0, 0, 4, 4);
+        assertEquals(List.of(tiles), TileBlocks.centerOut(tiles, SPEC, 0, 0, 0));
+    }
+
+    @Test
+    void componentsSeparateFragmentsLargestFirst() {
+        var small = grid(5, 0, 1, 1);
+        var large = grid(0, 0, 2, 2);
+        List<ImageRegion> tiles = new ArrayList<>(small);
+        tiles.addAll(large);
+        assertEquals(List.of(large, small), TileBlocks.components(tiles, SPEC));
+    }
+
+    @Test
+    void componentsConnectDiagonalNeighbours() {
+        var tiles = List.of(tile(0, 0), tile(1, 1), tile(2, 2), tile(4, 0));
+        assertEquals(List.of(tiles.subList(0, 3), tiles.subList(3, 4)), TileBlocks.components(tiles, SPEC));
+    }
+
+    @Test
+    void componentsKeepAConnectedGridWhole() {
+        var tiles = grid(0, 0, 3, 3);
+        assertEquals(List.of(tiles), TileBlocks.components(tiles, SPEC));
+    }
+
+    @Test
+    void centerOutByComponentDoesNotMergeFragmentsInOneBlock() {
+        var left = grid(0, 0, 1, 2);
+        var right = grid(2, 0, 2, 2);
+        var blocks = TileBlocks.centerOutByComponent(List.of(right, left), SPEC, 4, 0, 0);
+        assertEquals(List.of(left, right), blocks);
+        assertEquals(1, TileBlocks.centerOut(grid(0, 0, 4, 2), SPEC, 4, 0, 0).size());
+    }
+
+    private static List<ImageRegion> grid(int column, int row, int columns, int rows) {
+        List<ImageRegion> tiles = new ArrayList<>();
+        for (int y = row; y < row + rows; y++) {
+            for (int x = column; x < column + columns; x++) {
+                tiles.add(tile(x, y));
+            }
+        }
+        return tiles;
+    }
+
+    private static ImageRegion tile(int column, int row) {
+        return ImageRegion.createInstance(column * 100, row * 100, 100, 100, 0, 0);
+    }
+}
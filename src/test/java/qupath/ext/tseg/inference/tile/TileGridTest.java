@@ -0,0 +1,85 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference.tile;
+
+import org.junit.jupiter.api.Test;
+import qupath.ext.tseg.config.ExportConfig;
+import qupath.lib.regions.ImagePlane;
+import qupath.lib.regions.ImageRegion;
+import qupath.lib.roi.ROIs;
+import qupath.lib.roi.interfaces.ROI;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the tile grid covering a ROI.
+ */
+class TileGridTest {
+
+    @Test
+    void stepAndExtentAreInFullResolutionPixels() {
+        var spec = new ExportConfig(rectangle(0, 0, 100, 100), 0.5, 0.25, 512, 0.125, ".png");
+        assertEquals(1024, TileGrid.tileExtent(spec));
+        assertEquals(896, TileGrid.tileStep(spec));
+    }
+
+    @Test
+    void gridIsAnchoredToMultiplesOfTheStep() {
+        var grid = TileGrid.of(spec(rectangle(150, 250, 300, 100)), 5000, 5000);
+        assertEquals(ImageRegion.createInstance(100, 200, 100, 100, 0, 0), grid.tiles().get(0));
+        assertEquals(ImageRegion.createInstance(100, 200, 400, 200, 0, 0), TileGrid.bounds(grid.tiles()));
+        assertEquals(8, grid.size());
+        assertEquals(0, grid.skippedTiles());
+    }
+
+    @Test
+    void tilesAreClippedToTheImage() {
+        var grid = TileGrid.of(spec(rectangle(0, 0, 500, 500)), 250, 120);
+        assertEquals(List.of(
+                ImageRegion.createInstance(0, 0, 100, 100, 0, 0),
+                ImageRegion.createInstance(100, 0, 100, 100, 0, 0),
+                ImageRegion.createInstance(200, 0, 50, 100, 0, 0),
+                ImageRegion.createInstance(0, 100, 100, 20, 0, 0),
+                ImageRegion.createInstance(100, 100, 100, 20, 0, 0),
+                ImageRegion.createInstance(200, 100, 50, 20, 0, 0)), grid.tiles());
+    }
+
+    @Test
+    void tilesOutsideTheRoiAreSkipped() {
+        var triangle = ROIs.createPolygonROI(
+                new double[] {0, 950, 0}, new double[] {0, 0, 950}, ImagePlane.getDefaultPlane());
+        var grid = TileGrid.of(spec(triangle), 5000, 5000);
+        assertEquals(55, grid.size());
+        assertEquals(45, grid.skippedTiles());
+        for (var tile : grid.tiles()) {
+            assertTrue(tile.getX() + tile.getY() < 950, "Tile " + tile);
+        }
+    }
+
+    private static ExportConfig spec(ROI roi) {
+        return new ExportConfig(roi, 1, 1, 100, 0, ".png");
+    }
+
+    private static ROI rectangle(double x, double y, double width, double height) {
+        return ROIs.createRectangleROI(x, y, width, height, ImagePlane.getDefaultPlane());
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.inference.tile;
+
+import org.junit.jupiter.api.Test;
+import qupath.ext.tseg.config.ExportConfig;
+import qupath.lib.regions.ImagePlane;
+import qupath.lib.regions.ImageRegion;
+import qupath.lib.roi.ROIs;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests the traversal orders of a tile grid.
+ */
+class TileOrderTest {
+
+    private static final ExportConfig SPEC = new ExportConfig(
+            ROIs.createRectangleROI(0, 0, 400, 400, ImagePlane.getDefaultPlane()), 1, 1, 100, 0, ".png");
+
+    @Test
+    void hilbertIndexVisitsTheFirstCellsInCurveOrder() {
+        assertEquals(0, TileOrder.hilbertIndex(2, 0, 0));
+        assertEquals(1, TileOrder.hilbertIndex(2, 0, 1));
+        assertEquals(2, TileOrder.hilbertIndex(2, 1, 1));
+        assertEquals(3, TileOrder.hilbertIndex(2, 1, 0));
+    }
+
+    @Test
+    void hilbertIndexStepsBetweenAdjacentCells() {
+        for (int size : new int[] {1, 2, 4, 8, 32}) {
+            var cells = new int[size * size][];
+            for (int x = 0; x < size; x++) {
+                for (int y = 0; y < size; y++) {
+                    int index = (int) TileOrder.hilbertIndex(size, x, y);
+                    assertNull(cells[index], "Index " + index + " is used twice");
+                    cells[index] = new int[] {x, y};
+                }
+            }
+            for (int i = 1; i < cells.length; i++) {
+                int distance = Math.abs(cells[i][0] - cells[i - 1][0]) + Math.abs(cells[i][1] - cells[i - 1][1]);
+                assertEquals(1, distance, "Cells " + (i - 1) + " and " + i + " are not adjacent");
+            }
+        }
+    }
+
+    @Test
+    void rasterOrderVisitsRowsLeftToRight() {
+        var order = TileOrder.RASTER.order(grid(3, 2), SPEC);
+        assertEquals(List.of("0,0", "1,0", "2,0", "0,1", "1,1", "2,1"), cells(order));
+    }
+
+    @Test
+    void serpentineOrderAlternatesRowDirection() {
+        var order = TileOrder.SERPENTINE.order(grid(3, 3), SPEC);
+        assertEquals(List.of("0,0", "1,0", "2,0", "2,1", "1,1", "0,1", "0,2", "1,2", "2,2"), cells(order));
+    }
+
+    @Test
+    void hilbertOrderKeepsConsecutiveTilesAdjacent() {
+        var tiles = grid(4, 4);
+        var order = TileOrder.HILBERT.order(tiles, SPEC);
+        assertEquals(new HashSet<>(tiles), new HashSet<>(order));
+        assertEquals("0,0", cells(order).get(0));
+        assertEquals("3,0", cells(order).get(order.size() - 1));
+        for (int i = 1; i < order.size(); i++) {
+            int distance = Math.abs(order.get(i).getX() - order.get(i - 1).getX())
+                    + Math.abs(order.get(i).getY() - order.get(i - 1).getY());
+            assertEquals(100, distance);
+        }
+    }
+
+    @Test
+    void unknownNamesFallBackToTheDefaultOrder() {
+        assertEquals(TileOrder.SERPENTINE, TileOrder.fromString(" Serpentine "));
+        assertEquals(TileOrder.DEFAULT, TileOrder.fromString("spiral"));
+        assertEquals(TileOrder.DEFAULT, TileOrder.fromString(null));
+    }
+
+    private static List<ImageRegion> grid(int columns, int rows) {
+        List<ImageRegion> tiles = new ArrayList<>();
+        for (int y = rows - 1; y >= 0; y--) {
+            for (int x = columns - 1; x >= 0; x--) {
+                tiles.add(ImageRegion.createInstance(x * 100, y * 100, 100, 100, 0, 0));
+            }
+        }
+        return tiles;
+    }
+
+    private static List<String> cells(List<ImageRegion> tiles) {
+        return tiles.stream().map(t -> t.getX() / 100 + "," + t.getY() / 100).toList();
+    }
+}
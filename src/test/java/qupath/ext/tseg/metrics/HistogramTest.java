@@ -0,0 +1,75 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the quantiles estimated from histogram buckets.
+ */
+class HistogramTest {
+
+    private final Histogram histogram = new Histogram("test_seconds", "Test.", new double[] {1, 2, 4}, "stage");
+
+    @Test
+    void quantileIsNaNWithoutObservations() {
+        assertEquals(Double.NaN, histogram.quantile(0.5, "export"));
+    }
+
+    @Test
+    void quantilesInterpolateWithinBuckets() {
+        histogram.observe(0.5, "export");
+        histogram.observe(0.5, "export");
+        histogram.observe(1.5, "export");
+        histogram.observe(1.5, "export");
+        assertEquals(0.5, histogram.quantile(0.25, "export"), 1e-12);
+        assertEquals(1.0, histogram.quantile(0.5, "export"), 1e-12);
+        assertEquals(1.5, histogram.quantile(0.75, "export"), 1e-12);
+        assertEquals(2.0, histogram.quantile(1, "export"), 1e-12);
+    }
+
+    @Test
+    void valuesOnABoundCountInThatBucket() {
+        histogram.observe(2, "export");
+        assertEquals(2.0, histogram.quantile(1, "export"), 1e-12);
+    }
+
+    @Test
+    void valuesAboveTheLastBoundReportTheLastBound() {
+        histogram.observe(10, "export");
+        assertEquals(4.0, histogram.quantile(0.99, "export"), 1e-12);
+    }
+
+    @Test
+    void seriesAreKeptPerLabelValue() {
+        histogram.observe(0.5, "export");
+        histogram.observe(3, "inference");
+        assertEquals(0.5, histogram.quantile(0.5, "export"), 1e-12);
+        assertEquals(3.0, histogram.quantile(0.5, "inference"), 1e-12);
+        assertEquals(Double.NaN, histogram.quantile(0.5, "import"));
+    }
+
+    @Test
+    void observeRequiresAllLabels() {
+        assertThrows(IllegalArgumentException.class, () -> histogram.observe(1));
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * QuPath TSEG Extension for Tumor Area Segmentation
+ * Copyright (C) 2025 Arif Enes Aydın
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package qupath.ext.tseg.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests the OpenMetrics text written for counters and histograms.
+ */
+class OpenMetricsTest {
+
+    @Test
+    void counterSamplesAreSortedAndEscaped() {
+        var counter = new Counter("test_runs", "Runs by model.", "model");
+        counter.increment(2, "b");
+        counter.increment(3, "a\"\\\n");
+        var sb = new StringBuilder();
+        counter.writeTo(sb);
+        assertEquals("""
+                # TYPE test_runs counter
+                # HELP test_runs Runs by model.
+                test_runs_total{model="a\\"\\\\\\n"} 3
+                test_runs_total{model="b"} 2
+                """, sb.toString());
+    }
+
+    @Test
+    void histogramIsWrittenWithCumulativeBucketsAndQuantiles() {
+        var histogram = new Histogram("test_seconds", "Time.", new double[] {1, 2}, "stage");
+        histogram.observe(0.5, "export");
+        histogram.observe(3, "export");
+        var sb = new StringBuilder();
+        histogram.writeTo(sb);
+        assertEquals("""
+                # TYPE test_seconds histogram
+                # HELP test_seconds Time.
+                test_seconds_bucket{stage="export",le="1.0"} 1
+                test_seconds_bucket{stage="export",le="2.0"} 1
+                test_seconds_bucket{stage="export",le="+Inf"} 2
+                test_seconds_count{stage="export"} 2
+                test_seconds_sum{stage="export"} 3.5
+                # TYPE test_quantile_seconds summary
+                # HELP test_quantile_seconds Time. Quantiles estimated from histogram buckets.
+                test_quantile_seconds{stage="export",quantile="0.5"} 1.0
+                test_quantile_seconds{stage="export",quantile="0.9"} 2.0
+                test_quantile_seconds{stage="export",quantile="0.99"} 2.0
+                test_quantile_seconds_count{stage="export"} 2
+                test_quantile_seconds_sum{stage="export"} 3.5
+                """, sb.toString());
+    }
+
+    @Test
+    void specialValuesUseOpenMetricsNames() {
+        assertEquals("NaN", OpenMetrics.formatValue(Double.NaN));
+        assertEquals("+Inf", OpenMetrics.formatValue(Double.POSITIVE_INFINITY));
+        assertEquals("-Inf", OpenMetrics.formatValue(Double.NEGATIVE_INFINITY));
+        assertEquals("0.25", OpenMetrics.formatValue(0.25));
+    }
+}